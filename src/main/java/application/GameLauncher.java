@@ -3,25 +3,24 @@ package application;
 import application.controllers.ParentalControlController;
 
 import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
 
-import com.google.gson.Gson;
 
 import application.model.GameState;
 import application.model.Pet;
 import application.model.Player;
+import application.model.SaveRepository;
 
 import application.controllers.FeedbackController;
 import application.controllers.GameplayController;
 import application.model.Feedback;
+import application.util.GameScheduler;
 
 import application.view.GameplayScreen;
 import application.view.MainMenuScreen;
 import application.view.ParentalControlScreen;
 import application.view.SaveLoadScreen;
+import application.view.SpriteCache;
 import application.view.TutorialScreen;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -29,7 +28,6 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
-import java.nio.file.Path;
 import javafx.scene.control.Label;
 import javafx.scene.Node;
 
@@ -50,6 +48,9 @@ public class GameLauncher extends Application {
     // volatile ensures guaranteed variable vis for thread
     private volatile boolean withinTime = true;
 
+    // the one wakeup at the next start or end of the allowed hours, null if none
+    private GameScheduler.ScheduledTask timeWindowTask;
+
     // time played in mins
     private int totalTimePlayed;
     private int numberOfLaunches;
@@ -61,15 +62,10 @@ public class GameLauncher extends Application {
 
         this.parentalControlController = new ParentalControlController();
 
-        if (parentalControlController.isEnabled()) {
-            if (parentalControlController.isWithinAllowedTime()) {
-                this.withinTime = true;
-            } else {
-                this.withinTime = false;
-            }
-        } else {
-            this.withinTime = true;
-        }
+        // withinTime is recomputed when the allowed hours start or end, and when the
+        // settings change
+        scheduleTimeWindowCheck();
+        parentalControlController.addSettingsListener(this::scheduleTimeWindowCheck);
 
         // Initialize feedback model and controller
         feedbackModel = new Feedback(true, true);
@@ -77,6 +73,8 @@ public class GameLauncher extends Application {
 
         // Preload sound effects
         feedbackController.preloadSoundEffects();
+        // Decode the pet sprites in the background
+        SpriteCache.preload();
 
         showMainMenu();
 
@@ -89,6 +87,7 @@ public class GameLauncher extends Application {
 
         // increments num of launches to JSON at startup
         parentalControlController.incrementNumberOfLaunches();
+        parentalControlController.beginSession(); // ended by a shutdown hook on exit
 
         // starting thread to check if within time
         ParentalMonitor();
@@ -123,6 +122,7 @@ public class GameLauncher extends Application {
 
         // Initialize the GameplayController with the loaded GameState
         GameplayController gameplayController = new GameplayController(gameState);
+        parentalControlController.setSessionSlot(saveSlot);
 
         // Pass the GameState and other required values to the GameplayScreen
         GameplayScreen gameplayScreen = new GameplayScreen(this, feedbackController, gameplayController, gameState,
@@ -146,36 +146,15 @@ public class GameLauncher extends Application {
         primaryStage.setScene(tutorialScreen.getScene());
     }
 
+    // Loads from the save repository, recently played games come from its cache
     public GameState loadGame(int slotNumber) {
-        try {
-            Path savePath = Path.of("saves/save" + slotNumber + ".json");
-            if (!Files.exists(savePath)) {
-                return null; // Return null if the file doesn't exist
-            }
-
-            String jsonContent = Files.readString(savePath);
-            Gson gson = new Gson();
-            return gson.fromJson(jsonContent, GameState.class);
-        } catch (Exception e) {
-            System.out.println("Error loading game state from slot " + slotNumber + ": " + e.getMessage());
-            return null;
-        }
+        return SaveRepository.shared().load(slotNumber);
     }
 
+    // Snapshots the state in its pet's actor and writes it in the background (temp
+    // file, fsync, atomic rename), so the FX thread never encodes or waits for the disk
     public void saveGame(GameState gameState) {
-        try {
-            Path savePath = Path.of("saves/save" + gameState.getSaveSlot() + ".json");
-            Files.createDirectories(savePath.getParent()); // Ensure directory exists
-
-            Gson gson = new Gson();
-            FileWriter writer = new FileWriter(savePath.toFile());
-            gson.toJson(gameState, writer);
-            writer.close();
-
-            System.out.println("Game saved to " + savePath);
-        } catch (IOException e) {
-            System.err.println("Error saving game: " + e.getMessage());
-        }
+        SaveRepository.shared().save(gameState);
     }
 
     public GameState getCurrentGameState() {
@@ -187,40 +166,42 @@ public class GameLauncher extends Application {
     }
 
     /**
-     * Uses a daemon background thread, (so that it properly ends on closing the
-     * application),
-     * checks every minute if access allowed to startnew game and load game buttons
+     * Uses a repeating task on the shared GameScheduler (a daemon thread, so that it
+     * properly ends on closing the application),
+     * brings the play time of the session up to date every minute
      */
     private void ParentalMonitor() {
-        Thread monitorThread = new Thread(() -> {
-            while (true) {
-
-                try {
-                    Thread.sleep(60000);
-
-                    // increment the total time played by a minute and save directly to JSON (so
-                    // saved even on crash)
-                    parentalControlController.incrementTotalTimePlayed();
-
-                } catch (Exception e) {
-                    System.err.println("An unexpected error has occurred in ParentalMonitor thread: ");
-                    e.printStackTrace();
-                }
-                if (parentalControlController.isEnabled()) {
-                    if (parentalControlController.isWithinAllowedTime()) {
-                        this.withinTime = true;
-                    } else {
-                        this.withinTime = false;
-                    }
-                } else {
-                    this.withinTime = true;
-                }
+        GameScheduler.shared().scheduleAtFixedRate(() -> {
 
+            try {
+                // move the end of this session's record in the play session log, a
+                // write to mapped memory instead of rewriting the parent JSON
+                parentalControlController.tickSession();
+
+            } catch (Exception e) {
+                System.err.println("An unexpected error has occurred in ParentalMonitor task: ");
+                e.printStackTrace();
             }
-        });
 
-        monitorThread.setDaemon(true); // allows the thread to exit when the application closes
-        monitorThread.start();
+        }, 60000, 60000);
+    }
+
+    /**
+     * Updates withinTime and sleeps until the next hour where it changes, with a
+     * single task on the shared GameScheduler instead of checking every minute.
+     */
+    private synchronized void scheduleTimeWindowCheck() {
+        if (timeWindowTask != null) {
+            timeWindowTask.cancel();
+            timeWindowTask = null;
+        }
+
+        checkWithinTime();
+        long next = parentalControlController.nextAllowedTimeChangeMillis();
+        if (next >= 0) {
+            long delay = Math.max(0, next - GameScheduler.shared().millis());
+            timeWindowTask = GameScheduler.shared().schedule(this::scheduleTimeWindowCheck, delay);
+        }
     }
 
     public boolean getWithinTime() {
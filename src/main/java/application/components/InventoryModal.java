@@ -9,12 +9,14 @@ import javafx.scene.text.Text;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import org.kordamp.ikonli.javafx.FontIcon;
-import java.util.HashMap;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import application.controllers.FeedbackController;
 import application.model.GameState;
+import application.model.Inventory;
+import application.model.ItemCatalog;
+import application.model.ItemType;
+import application.util.ClickWindow;
+import application.util.GameScheduler;
 
 public class InventoryModal extends StackPane {
 
@@ -25,8 +27,9 @@ public class InventoryModal extends StackPane {
     private GameState gameState;
     private FeedbackController feedbackController;
 
-    private HashMap<String, Integer> clickCounts;
-    private HashMap<String, Timer> timers;
+    // Reward click windows and auto clicker guards, indexed by item id
+    private ClickWindow[] rewardClicks;
+    private ClickWindow[] clickGuards;
 
     public InventoryModal(GameState gameState, FeedbackController feedbackController) {
         this.gameState = gameState;
@@ -35,9 +38,14 @@ public class InventoryModal extends StackPane {
         this.setAlignment(Pos.CENTER);
         this.setVisible(false);
 
-        // Initialize click counts and timers
-        clickCounts = new HashMap<>();
-        timers = new HashMap<>();
+        // One click window per item, from its reward rule
+        rewardClicks = new ClickWindow[ItemCatalog.size()];
+        clickGuards = new ClickWindow[ItemCatalog.size()];
+        for (int id = 0; id < rewardClicks.length; id++) {
+            ItemType item = ItemCatalog.get(id);
+            rewardClicks[id] = new ClickWindow(item.getRewardClicks(), item.getRewardWindowMillis());
+            clickGuards[id] = ClickWindow.autoClickGuard();
+        }
 
         // Main content container with fixed size
         modalContent = new VBox(20);
@@ -87,25 +95,11 @@ public class InventoryModal extends StackPane {
 
         // Food Section
         VBox foodSection = createInventoryItem("fas-drumstick-bite", "Food");
-        VBox foodExtras = createExtrasSection(
-                new String[] { "fas-carrot", "fas-apple-alt", "fas-bacon" },
-                new String[] { "Vegetable", "Fruit", "Meat" },
-                new int[] {
-                        gameState.getPlayer().getInventory().getFoodItems("Vegetable"),
-                        gameState.getPlayer().getInventory().getFoodItems("Fruit"),
-                        gameState.getPlayer().getInventory().getFoodItems("Meat")
-                });
+        VBox foodExtras = createExtrasSection(ItemCatalog.inCategory(ItemType.Category.FOOD));
 
         // Gift Section
         VBox giftSection = createInventoryItem("fas-gift", "Gifts");
-        VBox giftExtras = createExtrasSection(
-                new String[] { "fas-football-ball", "fas-baseball-ball", "fas-home" },
-                new String[] { "Toy", "Ball", "Play Place" },
-                new int[] {
-                        gameState.getPlayer().getInventory().getGiftItems("Toy"),
-                        gameState.getPlayer().getInventory().getGiftItems("Ball"),
-                        gameState.getPlayer().getInventory().getGiftItems("Play Place")
-                });
+        VBox giftExtras = createExtrasSection(ItemCatalog.inCategory(ItemType.Category.GIFT));
 
         // Arrange sections
         VBox foodContainer = new VBox(10, foodSection, foodExtras);
@@ -131,59 +125,31 @@ public class InventoryModal extends StackPane {
         return page;
     }
 
-    private void handleRewardButtonClick(String item) {
-        final int MAX_CLICKS = 5; // Number of clicks needed for a reward
-        final long TIME_LIMIT_MS = 5000; // 5 seconds
-
-        // Initialize click count if it doesn't exist
-        clickCounts.putIfAbsent(item, 0);
+    private void handleRewardButtonClick(ItemType item) {
+        long now = GameScheduler.shared().millis();
+        int id = item.getId();
 
-        // Cancel any existing timer for the item
-        if (timers.containsKey(item)) {
-            timers.get(item).cancel();
-            timers.remove(item);
+        // Clicks faster than a person can click are ignored
+        if (!clickGuards[id].tryAcquire(now)) {
+            return;
         }
 
-        // Increment the click count
-        int currentCount = clickCounts.get(item) + 1;
-        clickCounts.put(item, currentCount);
-
-        // Check if the count meets or exceeds the threshold
-        if (currentCount >= MAX_CLICKS) {
-            // Calculate rewards based on multiples of MAX_CLICKS
-            int rewardsGranted = currentCount / MAX_CLICKS; // Full rewards
-            int remainingClicks = currentCount % MAX_CLICKS; // Extra clicks to carry over
-
-            // Grant reward(s)
-            System.out.println("Rewarded " + rewardsGranted + " " + item + (rewardsGranted > 1 ? "s" : "") + ".");
-
-            // Add the rewarded items to the inventory
-            try {
-                gameState.getPlayer().getInventory().addItem(item.toLowerCase(), rewardsGranted);
-            } catch (Exception e) {
-                System.err.println("Failed to add reward to inventory: " + e.getMessage());
-            }
-
-            // Refresh both pages
-            refreshInventoryPage();
-            refreshRewardsPage();
+        // Reward when the item's clicks all fall within its time limit
+        if (!rewardClicks[id].record(now)) {
+            return;
+        }
+        int amount = item.getRewardAmount();
+        System.out.println("Rewarded " + amount + " " + item.getName() + (amount > 1 ? "s" : "") + ".");
 
-            // Reset click count but keep remaining clicks
-            clickCounts.put(item, remainingClicks);
+        // Add the rewarded items to the inventory
+        Inventory.Result result = gameState.getPlayer().getInventory().add(item, amount);
+        if (result != Inventory.Result.OK) {
+            System.err.println("Failed to add reward to inventory: " + result);
         }
 
-        // Start new timer for this item
-        Timer timer = new Timer();
-        timers.put(item, timer);
-
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                // Timer expirec reset the click count
-                clickCounts.put(item, 0);
-                timers.remove(item);
-            }
-        }, TIME_LIMIT_MS); // Set timer to expire after 5 seconds
+        // Refresh both pages
+        refreshInventoryPage();
+        refreshRewardsPage();
     }
 
     private void refreshRewardsPage() {
@@ -224,8 +190,10 @@ public class InventoryModal extends StackPane {
         VBox page = new VBox(20);
         page.setAlignment(Pos.TOP_CENTER);
 
-        // Title
-        Text rewardTitle = new Text("Click an item 5 times in 5 seconds for a reward");
+        // Title, from the reward rule of the first item
+        ItemType first = ItemCatalog.get(0);
+        Text rewardTitle = new Text("Click an item " + first.getRewardClicks() + " times in "
+                + first.getRewardWindowMillis() / 1000 + " seconds for a reward");
         rewardTitle.setFont(Font.font("Arial", 18));
         rewardTitle.setStyle("-fx-font-weight: bold; -fx-fill: #555555;");
         VBox.setMargin(rewardTitle, new Insets(20, 0, 0, 0));
@@ -234,31 +202,11 @@ public class InventoryModal extends StackPane {
         HBox rewardItems = new HBox(40);
         rewardItems.setAlignment(Pos.CENTER);
 
-        // Food Quantities
-        int[] foodQuantities = {
-                gameState.getPlayer().getInventory().getFoodItems("Vegetable"),
-                gameState.getPlayer().getInventory().getFoodItems("Fruit"),
-                gameState.getPlayer().getInventory().getFoodItems("Meat")
-        };
-
-        // Gift Quantities
-        int[] giftQuantities = {
-                gameState.getPlayer().getInventory().getGiftItems("Toy"),
-                gameState.getPlayer().getInventory().getGiftItems("Ball"),
-                gameState.getPlayer().getInventory().getGiftItems("Play Place")
-        };
-
         // Food Buttons
-        VBox foodButtons = createExtrasSection(
-                new String[] { "fas-carrot", "fas-apple-alt", "fas-bacon" },
-                new String[] { "Vegetable", "Fruit", "Meat" },
-                foodQuantities);
+        VBox foodButtons = createExtrasSection(ItemCatalog.inCategory(ItemType.Category.FOOD));
 
         // Gift Buttons
-        VBox giftButtons = createExtrasSection(
-                new String[] { "fas-football-ball", "fas-baseball-ball", "fas-home" },
-                new String[] { "Toy", "Ball", "Play Place" },
-                giftQuantities);
+        VBox giftButtons = createExtrasSection(ItemCatalog.inCategory(ItemType.Category.GIFT));
 
         rewardItems.getChildren().addAll(foodButtons, giftButtons);
 
@@ -292,14 +240,14 @@ public class InventoryModal extends StackPane {
     }
 
     /**
-     * Creates a section for extra items
+     * Creates a section with a button for each item of a category
      */
-    private VBox createExtrasSection(String[] iconLiterals, String[] labels, int[] quantities) {
+    private VBox createExtrasSection(ItemType[] items) {
         VBox extrasContainer = new VBox(10);
         extrasContainer.setAlignment(Pos.CENTER);
+        Inventory inventory = gameState.getPlayer().getInventory();
 
-        for (int i = 0; i < iconLiterals.length; i++) {
-            final String currentItem = labels[i]; // Capture the item name
+        for (ItemType currentItem : items) {
 
             HBox itemContainer = new HBox(10);
             itemContainer.setAlignment(Pos.CENTER_LEFT);
@@ -309,7 +257,7 @@ public class InventoryModal extends StackPane {
             Circle circle = new Circle(30, Color.WHITE);
             circle.setStroke(Color.BLUE);
             circle.setStrokeWidth(2);
-            FontIcon icon = new FontIcon(iconLiterals[i]);
+            FontIcon icon = new FontIcon(currentItem.getIcon());
             icon.setIconSize(16);
             icon.setIconColor(Color.BLACK);
 
@@ -320,7 +268,7 @@ public class InventoryModal extends StackPane {
             feedbackController.playSoundEffect("buttonSelect");
 
             // Label with Quantity
-            Text label = new Text(labels[i] + ": " + quantities[i]);
+            Text label = new Text(currentItem.getName() + ": " + inventory.getCount(currentItem));
             label.setFont(Font.font("Arial", 12));
             label.setStyle("-fx-font-weight: bold;");
 
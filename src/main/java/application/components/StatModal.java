@@ -8,22 +8,29 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import application.controllers.FeedbackController;
 import application.controllers.GameplayController;
+import application.model.ItemCatalog;
+import application.model.ItemType;
+import application.model.PetAction;
+import application.model.PetEffects;
+import application.util.ClickWindow;
+import application.util.GameScheduler;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 public class StatModal extends StackPane {
 
     private Runnable onCloseAction; // Action to perform when "Close" is clicked
     private Text modalTitle;
     private VBox buttonContainer;
     private GameplayController gameplayController;
-    private InventoryModal inventoryModal;
     private FeedbackController feedbackController;
+    private String currentStat; // stat whose buttons are shown
 
-    public StatModal(GameplayController gameplayController, InventoryModal inventoryModal,
-            FeedbackController feedbackController) {
+    public StatModal(GameplayController gameplayController, FeedbackController feedbackController) {
         this.gameplayController = gameplayController;
-        this.inventoryModal = inventoryModal;
         this.feedbackController = feedbackController;
         this.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);");
         this.setAlignment(Pos.CENTER);
@@ -62,19 +69,19 @@ public class StatModal extends StackPane {
 
         modalContent.getChildren().addAll(modalTitle, buttonContainer, closeButton);
         this.getChildren().add(modalContent);
+
+        // Buttons of actions that are cooling down stay disabled until the cooldown ends
+        gameplayController.setOnCooldownChanged(() -> Platform.runLater(() -> {
+            if (currentStat != null) {
+                disableButtonsForState(currentStat);
+            }
+        }));
     }
 
     public void setOnCloseAction(Runnable action) {
         this.onCloseAction = action;
     }
 
-    private void refreshStatBars() {
-        System.out.println("Stats updated: Hunger=" + gameplayController.getPetHunger() +
-                ", Energy=" + gameplayController.getPetSleep() +
-                ", Happiness=" + gameplayController.getPetHappiness() +
-                ", Health=" + gameplayController.getPetHealth());
-    }
-
     public void setTitle(String title) {
         modalTitle.setText(title);
         populateButtons(title);
@@ -131,73 +138,60 @@ public class StatModal extends StackPane {
             default:
                 System.out.println("Unknown pet state: " + petState);
         }
+
+        // Actions that are cooling down stay disabled whatever the state
+        buttonContainer.getChildren().forEach(node -> {
+            if (node instanceof Button button && button.getUserData() instanceof PetAction action
+                    && gameplayController.getCooldownRemainingMillis(action) > 0) {
+                button.setDisable(true);
+            }
+        });
     }
 
     private void populateButtons(String statName) {
         buttonContainer.getChildren().clear();
+        currentStat = statName;
 
         switch (statName) {
             case "Hunger":
-                addButton("Meat +15", () -> {
-                    feedbackController.playSoundEffect("giftEffect");
-                    gameplayController.feedPet("meat");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
-                    inventoryModal.refreshAllInventoryPages();
-
-                });
-                addButton("Fruit +10", () -> {
-                    gameplayController.feedPet("fruit");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
-                    inventoryModal.refreshAllInventoryPages();
-                });
-                addButton("Vegetable +5", () -> {
-                    gameplayController.feedPet("vegetable");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
-                    inventoryModal.refreshAllInventoryPages();
-
-                });
+                ItemType[] foods = strongestFirst(ItemType.Category.FOOD, PetEffects.FULLNESS);
+                for (int i = 0; i < foods.length; i++) {
+                    ItemType food = foods[i];
+                    boolean strongest = i == 0;
+                    addButton(effectLabel(food, PetEffects.FULLNESS), () -> {
+                        if (strongest) {
+                            feedbackController.playSoundEffect("giftEffect");
+                        }
+                        // Runs later on the pet's actor, the stat bars and inventory
+                        // redraw from the change listeners once it is done
+                        gameplayController.feedPet(food);
+                    });
+                }
                 break;
 
             case "Sleep":
                 addButton("Go to Sleep = 100", () -> {
                     gameplayController.goToSleep();
-                    refreshStatBars();
                 });
                 break;
 
             case "Happiness":
-                addButton("Play +15", () -> {
+                addButton("Play +15", PetAction.PLAY, () -> {
                     gameplayController.playWithPet();
-                    refreshStatBars();
-                });
-                addButton("Play Place +15", () -> {
-                    gameplayController.giftPet("play place");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
-                });
-                addButton("Ball +10", () -> {
-                    gameplayController.giftPet("ball");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
-                });
-                addButton("Toy +5", () -> {
-                    gameplayController.giftPet("toy");
-                    refreshStatBars();
-                    gameplayController.notifyInventoryUpdated();
                 });
+                for (ItemType gift : strongestFirst(ItemType.Category.GIFT, PetEffects.HAPPINESS)) {
+                    addButton(effectLabel(gift, PetEffects.HAPPINESS), () -> {
+                        gameplayController.giftPet(gift);
+                    });
+                }
                 break;
 
             case "Health":
-                addButton("Take to Vet", () -> {
+                addButton("Take to Vet", PetAction.TAKE_TO_VET, () -> {
                     gameplayController.takeToVet();
-                    refreshStatBars();
                 });
                 addButton("Exercise +5", () -> {
                     gameplayController.exercisePet();
-                    refreshStatBars();
                 });
                 break;
 
@@ -208,35 +202,42 @@ public class StatModal extends StackPane {
         disableButtonsForState(statName); // Update button states after populating
     }
 
+    // Items of a category from the catalog, the biggest change to the stat first
+    private static ItemType[] strongestFirst(ItemType.Category category, int stat) {
+        ItemType[] items = ItemCatalog.inCategory(category).clone();
+        Arrays.sort(items, Comparator.comparingInt((ItemType item) -> item.getDelta(stat)).reversed());
+        return items;
+    }
+
+    // Button text such as "Meat +15"
+    private static String effectLabel(ItemType item, int stat) {
+        int delta = item.getDelta(stat);
+        return item.getName() + (delta >= 0 ? " +" : " ") + delta;
+    }
+
     private void addButton(String label, Runnable action) {
+        addButton(label, null, action);
+    }
+
+    // petAction is the action the button does if it has a cooldown, null otherwise
+    private void addButton(String label, PetAction petAction, Runnable action) {
         Button button = new Button(label);
+        button.setUserData(petAction);
+        ClickWindow clickGuard = ClickWindow.autoClickGuard();
         button.setStyle(
                 "-fx-background-color: #638EFB; " +
                         "-fx-text-fill: #ffffff; " +
                         "-fx-background-radius: 15; " +
                         "-fx-padding: 10 20;");
         button.setOnAction(e -> {
-
-            // Disable the button if it's one of the targeted buttons
-            if (label.equals("Play +15") || label.equals("Take to Vet")) {
-                button.setDisable(true); // Disable the button
-                action.run(); // Execute the button's action
-                feedbackController.playSoundEffect("reward3");
-
-                // Start a thread to re enable the button after 10 seconds
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(10000); // Wait for 10 seconds
-                    } catch (InterruptedException ex) {
-                        ex.printStackTrace();
-                    }
-                    Platform.runLater(() -> button.setDisable(false)); // Re enable the button
-                }).start();
-            } else {
-                // Execute action for other buttons without disabling
-                action.run();
-                feedbackController.playSoundEffect("reward3");
+            if (!clickGuard.tryAcquire(GameScheduler.shared().millis())) {
+                return; // auto clicker
             }
+
+            // The controller starts the action's cooldown, which disables the button
+            // until the CooldownManager says it ended
+            action.run();
+            feedbackController.playSoundEffect("reward3");
         });
 
         buttonContainer.getChildren().add(button);
@@ -1,33 +1,54 @@
 package application.controllers;
 
 import application.model.Player;
+import application.model.CooldownManager;
 import application.model.Pet;
 import application.model.GameState;
 import application.model.Inventory;
+import application.model.ItemType;
+import application.model.LazyDecay;
+import application.model.PetAction;
+import application.model.PetActor;
+import application.model.PlaySessionLog;
+import application.model.ThresholdIndex;
+import application.util.GameScheduler;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class GameplayController {
     private GameState gameState;
     private Player player;
     private Pet pet;
-    private Timer statDecayTimer;
-    private Runnable onStatsUpdated; // Callback to refresh stats
-    private Runnable onInventoryUpdated;
+    private static final long STAT_DECAY_MILLIS = LazyDecay.TICK_MILLIS; // Update stats every 5 seconds
+
+    // Run with -Dmypet.lazyDecay=true to work out stats from elapsed time when they
+    // are read, instead of changing the pet on a timer
+    private static final boolean LAZY_DECAY = Boolean.getBoolean("mypet.lazyDecay");
+
+    // Run with -Dmypet.decaySeed=<number> to roll the same decay every run, e.g. to
+    // reproduce a bug report
+    private static final Long DECAY_SEED = Long.getLong("mypet.decaySeed");
+
+    // Predicts when pets cross a threshold, shared by every session so only one
+    // wakeup is pending however many pets are playing
+    private static final ThresholdIndex THRESHOLDS = new ThresholdIndex(GameScheduler.shared());
+
+    // Cooldowns of actions such as play and take to the vet, kept by pet save slot
+    private static final CooldownManager COOLDOWNS = CooldownManager.shared();
+
+    private GameScheduler.ScheduledTask statDecayTask;
     private Runnable onPetStateUpdated;
+    private Runnable onPetWarning;
+    private Runnable onCooldownChanged;
+    private final CooldownManager.Listener cooldownListener = this::cooldownChanged;
 
     public GameplayController(GameState gameState) {
         this.gameState = gameState;
         this.player = gameState.getPlayer();
         this.pet = player.getCurrentPet();
 
-        if (this.pet != null && this.pet.getGetAllPetStates() == null) {
-            System.out.println("Initializing currentPetStates for pet.");
-            this.pet.clearPetStates();
-        }
-
         // Debugging check if the pet stats are loaded correctly
         if (pet != null) {
             System.out.println("Pet Stats Loaded: Hunger=" + pet.getFullness() +
@@ -40,6 +61,7 @@ public class GameplayController {
     }
 
     public void loadGameState(GameState gameState) {
+        this.gameState = gameState;
         this.player = gameState.getPlayer();
         this.pet = player.getCurrentPet();
 
@@ -50,48 +72,117 @@ public class GameplayController {
     // ----- Gameplay Actions -----
 
     public void feedPet(String foodItem) {
-        try {
+        feedPet(ItemType.fromLabel(foodItem));
+    }
 
-            pet.interactPet("feed", foodItem, player.getInventory());
+    public void feedPet(ItemType foodItem) {
+        userAction(PetAction.FEED, target -> {
+            boolean fed = target.interact(PetAction.FEED, foodItem, player.getInventory());
+            if (!fed) {
+                System.out.println("Failed to feed pet: no " + foodItem + " available");
+            }
             player.setScore(player.getScore() + 1);
 
-            System.out.println("Fed " + pet.getName() + " with " + foodItem);
-
             notifyStatsUpdated();
-            notifyInventoryUpdated();
-        } catch (Exception e) {
-            System.out.println("Failed to feed pet: " + e.getMessage());
-        }
+            return fed;
+        });
     }
 
     public void playWithPet() {
-        pet.interactPet("play", "", null);
-        player.setScore(player.getScore() + 1);
-        System.out.println("Played with " + pet.getName());
-        notifyStatsUpdated();
+        userAction(PetAction.PLAY, target -> {
+            boolean played = target.interact(PetAction.PLAY, null, null);
+            player.setScore(player.getScore() + 1);
+            notifyStatsUpdated();
+            return played;
+        });
     }
 
     public void exercisePet() {
-        pet.interactPet("exercise", "", null);
-        player.setScore(player.getScore() + 1);
-        System.out.println("Exercised " + pet.getName());
+        userAction(PetAction.EXERCISE, target -> {
+            boolean exercised = target.interact(PetAction.EXERCISE, null, null);
+            player.setScore(player.getScore() + 1);
+            notifyStatsUpdated();
+            return exercised;
+        });
     }
 
     public void giftPet(String giftItem) {
-        try {
+        giftPet(ItemType.fromLabel(giftItem));
+    }
 
-            pet.interactPet("give gift", giftItem, player.getInventory());
+    public void giftPet(ItemType giftItem) {
+        userAction(PetAction.GIVE_GIFT, target -> {
+            boolean gifted = target.interact(PetAction.GIVE_GIFT, giftItem, player.getInventory());
+            if (!gifted) {
+                System.out.println("Failed to gift pet: no " + giftItem + " available");
+            }
             player.setScore(player.getScore() + 1);
 
-            System.out.println("Gifted " + pet.getName() + " with " + giftItem);
-
             notifyStatsUpdated();
-            notifyInventoryUpdated();
-        } catch (Exception e) {
-            System.out.println("Failed to gift pet: " + e.getMessage());
+            return gifted;
+        });
+    }
+
+    // An action of the player, run on the pet's actor. It is refused while the
+    // action is cooling down for this pet. The command returns whether the pet did
+    // the action, only then is the cooldown started and the action counted in the
+    // play session log
+    private void userAction(PetAction action, Predicate<Pet> command) {
+        int slot = gameState.getSaveSlot();
+        if (pet != null && COOLDOWNS.isCoolingDown(slot, action)) {
+            System.out.println("Cannot " + action.getName() + " yet, "
+                    + getCooldownRemainingMillis(action) / 1000 + " seconds left");
+            return;
+        }
+        tellPet(target -> {
+            if (COOLDOWNS.isCoolingDown(slot, action)) {
+                return; // clicked again before the first one ran
+            }
+            if (command.test(target)) {
+                COOLDOWNS.tryStart(slot, action);
+                PlaySessionLog.shared().countAction();
+            }
+        });
+    }
+
+    /**
+     * Gets the time left before an action can be done again with this pet.
+     *
+     * @param action the action
+     * @return the time left in milliseconds, 0 if it can be done now
+     */
+    public long getCooldownRemainingMillis(PetAction action) {
+        return COOLDOWNS.remainingMillis(gameState.getSaveSlot(), action);
+    }
+
+    // Set a callback that runs when a cooldown of this pet starts or ends, it can
+    // run on the scheduler thread. The controller only listens to the shared
+    // CooldownManager while a callback is set and until stopGameplay()
+    public void setOnCooldownChanged(Runnable onCooldownChanged) {
+        this.onCooldownChanged = onCooldownChanged;
+        if (onCooldownChanged != null) {
+            COOLDOWNS.addListener(cooldownListener);
+        } else {
+            COOLDOWNS.removeListener(cooldownListener);
         }
     }
 
+    private void cooldownChanged(int petSlot, PetAction action, long remainingMillis) {
+        if (petSlot == gameState.getSaveSlot() && onCooldownChanged != null) {
+            onCooldownChanged.run();
+        }
+    }
+
+    // Every change to the pet goes through its actor, so the decay timer and the
+    // FX thread never change it at the same time
+    private void tellPet(Consumer<Pet> command) {
+        if (pet == null) {
+            System.err.println("Cannot perform action: No pet assigned.");
+            return;
+        }
+        PetActor.of(pet).tell(command);
+    }
+
     // ----- Periodic Pet Updates -----
 
     public void startStatDecay() {
@@ -100,39 +191,59 @@ public class GameplayController {
             return;
         }
 
-        if (statDecayTimer != null) {
+        if (statDecayTask != null) { // the lazy mode has its task too
             System.out.println("Stat decay already running. Skipping start.");
             return; // Prevent multiple timers from starting
         }
 
+        if (LAZY_DECAY) {
+            // No decay timer, the pet decays when its stats are read. The shown pet is
+            // still settled once a tick so its change listeners keep the stat bars current
+            // between threshold crossings.
+            tellPet(Pet::enableLazyDecay);
+            THRESHOLDS.track(pet, this::onThresholdCrossed);
+            statDecayTask = GameScheduler.shared().scheduleAtFixedRate(
+                    () -> tellPet(target -> target.settleDecay(GameScheduler.shared().millis())),
+                    STAT_DECAY_MILLIS, STAT_DECAY_MILLIS);
+            System.out.println("Lazy stat decay started.");
+            return;
+        }
+
+        if (DECAY_SEED != null) {
+            pet.setDecaySeed(DECAY_SEED);
+        }
+        THRESHOLDS.track(pet, this::onThresholdCrossed);
         System.out.println("Starting stat decay...");
-        statDecayTimer = new Timer(true); // Daemon timer
-        statDecayTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (pet != null) {
-                    System.out.println("Before decay: Hunger=" + pet.getFullness() +
-                            ", Happiness=" + pet.getHappiness() +
-                            ", Sleep=" + pet.getSleep());
-
-                    pet.adjustStats();
-                    pet.checkAndAddState();
-
-                    System.out.println("After decay: Hunger=" + pet.getFullness() +
-                            ", Happiness=" + pet.getHappiness() +
-                            ", Sleep=" + pet.getSleep());
-                    notifyStatsUpdated();
-                }
-            }
-        }, 0, 5000); // Update stats every 10 seconds
+        // Runs on the shared scheduler instead of a Timer thread per session
+        // The timer only sends the tick, the pet's actor applies it
+        statDecayTask = GameScheduler.shared().scheduleAtFixedRate(() -> tellPet(target -> {
+            System.out.println("Before decay: Hunger=" + target.getFullness() +
+                    ", Happiness=" + target.getHappiness() +
+                    ", Sleep=" + target.getSleep());
+
+            target.adjustStats();
+            target.checkAndAddState();
+
+            System.out.println("After decay: Hunger=" + target.getFullness() +
+                    ", Happiness=" + target.getHappiness() +
+                    ", Sleep=" + target.getSleep());
+            notifyStatsUpdated();
+        }), 0, STAT_DECAY_MILLIS);
 
         System.out.println("Stat decay started.");
     }
 
     public void stopStatDecay() {
-        if (statDecayTimer != null) {
-            statDecayTimer.cancel();
-            statDecayTimer = null;
+        if (pet != null) {
+            THRESHOLDS.untrack(pet);
+        }
+        if (pet != null && pet.isLazyDecay()) {
+            tellPet(Pet::disableLazyDecay); // freezes the stats until decay starts again
+            System.out.println("Lazy stat decay stopped.");
+        }
+        if (statDecayTask != null) {
+            statDecayTask.cancel();
+            statDecayTask = null;
             System.out.println("Stat decay timer stopped.");
         }
     }
@@ -177,6 +288,10 @@ public class GameplayController {
 
     public void stopGameplay() {
         stopStatDecay(); // Stop periodic stat updates
+        COOLDOWNS.removeListener(cooldownListener);
+        if (pet != null) {
+            pet.cancelSleepRecovery();
+        }
         System.out.println("Gameplay stopped successfully.");
     }
 
@@ -198,56 +313,61 @@ public class GameplayController {
         return stats;
     }
 
-    public void setOnStatsUpdated(Runnable onStatsUpdated) {
-        this.onStatsUpdated = onStatsUpdated;
-    }
-
-    public void notifyStatsUpdated() {
-        if (onStatsUpdated != null) {
-            onStatsUpdated.run();
+    // The stats changed, so the predicted crossings are stale. The screen redraws
+    // from the pet's change listeners, not from here
+    private void notifyStatsUpdated() {
+        if (pet != null) {
+            THRESHOLDS.update(pet);
         }
     }
 
-    public void setOnInventoryUpdated(Runnable onInventoryUpdated) {
-        this.onInventoryUpdated = onInventoryUpdated;
+    public void setOnPetStateUpdated(Runnable onPetStateUpdated) {
+        this.onPetStateUpdated = onPetStateUpdated;
     }
 
-    public void notifyInventoryUpdated() {
-        if (onInventoryUpdated != null) {
-            onInventoryUpdated.run();
+    private void notifyPetStateUpdated() {
+        if (onPetStateUpdated != null) {
+            onPetStateUpdated.run();
         }
     }
 
-    public void setOnPetStateUpdated(Runnable onPetStateUpdated) {
-        this.onPetStateUpdated = onPetStateUpdated;
+    public void setOnPetWarning(Runnable onPetWarning) {
+        this.onPetWarning = onPetWarning;
     }
 
-    /*
-     * private void notifyPetStateUpdated() {
-     * if (onPetStateUpdated != null) {
-     * onPetStateUpdated.run();
-     * }
-     * }
-     */
+    // Called by the threshold index on the scheduler thread
+    private void onThresholdCrossed(Pet crossedPet, ThresholdIndex.Crossing crossing) {
+        if (crossing == ThresholdIndex.Crossing.WARNING) {
+            if (onPetWarning != null) {
+                onPetWarning.run();
+            }
+        } else {
+            notifyPetStateUpdated();
+        }
+    }
 
     public void goToSleep() {
-        if (pet != null) {
-            pet.interactPet("go to bed", "", null);
+        userAction(PetAction.GO_TO_BED, target -> {
+            if (!target.canDo(PetAction.GO_TO_BED)) {
+                return false;
+            }
+            // Sleep recovers in the background, every step refreshes the stats
+            target.goToBed((sleepingPet, sleep) -> notifyStatsUpdated());
             System.out.println("Pet is going to sleep.");
             notifyStatsUpdated();
-        } else {
-            System.err.println("Cannot perform action: No pet assigned.");
-        }
+            return true;
+        });
     }
 
     public void takeToVet() {
-        if (pet != null) {
-            pet.interactPet("take to the vet", "", null);
-            System.out.println("Pet is being taken to the vet.");
+        userAction(PetAction.TAKE_TO_VET, target -> {
+            boolean taken = target.interact(PetAction.TAKE_TO_VET, null, null);
+            if (taken) {
+                System.out.println("Pet is being taken to the vet.");
+            }
             notifyStatsUpdated();
-        } else {
-            System.err.println("Cannot perform action: No pet assigned.");
-        }
+            return taken;
+        });
     }
 
     public String getPetMainState() {
@@ -1,6 +1,9 @@
 package application.controllers;
 
 import application.model.Parent;
+import application.model.PlaySessionLog;
+import application.util.GameScheduler;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -16,6 +19,10 @@ public class ParentalControlController {
 
     private Parent parentModel;
 
+    private PlaySessionLog sessionLog = PlaySessionLog.shared();
+
+    private static final long MINUTE_MILLIS = 60_000;
+
     /**
      * Constructor that initializes the controller with a new Parent model.
      */
@@ -78,6 +85,24 @@ public class ParentalControlController {
         return parentModel.isWithinAllowedTime();
     }
 
+    /**
+     * Gets when isWithinAllowedTime() next changes.
+     *
+     * @return The time of the change in clock milliseconds, or -1 if it never changes.
+     */
+    public long nextAllowedTimeChangeMillis() {
+        return parentModel.nextAllowedTimeChangeMillis();
+    }
+
+    /**
+     * Adds a listener told whenever the parental settings change.
+     *
+     * @param listener The listener.
+     */
+    public void addSettingsListener(Runnable listener) {
+        parentModel.addChangeListener(listener);
+    }
+
     /**
      * Increments the number of times the application has been launched.
      */
@@ -92,6 +117,47 @@ public class ParentalControlController {
         parentModel.incrementTotalTimePlayed();
     }
 
+    /**
+     * Starts the play session of this launch.
+     */
+    public void beginSession() {
+        sessionLog.beginSession();
+    }
+
+    /**
+     * Brings the play time of the running session up to now, without rewriting any file.
+     */
+    public void tickSession() {
+        sessionLog.tick();
+    }
+
+    /**
+     * Records the save slot played in the running session.
+     *
+     * @param slot The save slot.
+     */
+    public void setSessionSlot(int slot) {
+        sessionLog.setSlot(slot);
+    }
+
+    /**
+     * Gets the minutes played today.
+     *
+     * @return The play time of today in minutes.
+     */
+    public int getMinutesPlayedToday() {
+        return (int) (sessionLog.getDayMillis(today()) / MINUTE_MILLIS);
+    }
+
+    /**
+     * Gets the minutes played this week, from Monday.
+     *
+     * @return The play time of this week in minutes.
+     */
+    public int getMinutesPlayedThisWeek() {
+        return (int) (sessionLog.getWeekMillis(today()) / MINUTE_MILLIS);
+    }
+
     /**
      * Gets the number of times the application has been launched.
      *
@@ -101,13 +167,32 @@ public class ParentalControlController {
         return parentModel.getNumberOfLaunches();
     }
 
+    private static LocalDate today() {
+        return GameScheduler.shared().getClock().localDateTime().toLocalDate();
+    }
+
+    /**
+     * Gets the average length of a play session in minutes.
+     *
+     * @return The average play time per session, 0 if nothing was played yet.
+     */
+    public int getAverageSessionMinutes() {
+        long sessions = sessionLog.getSessionCount();
+        if (sessions > 0) {
+            return (int) (sessionLog.getTotalMillis() / sessions / MINUTE_MILLIS);
+        }
+        int launches = parentModel.getNumberOfLaunches(); // only minutes from before the session log
+        return launches > 0 ? parentModel.getTotalTimePlayed() / launches : 0;
+    }
+
     /**
      * Gets the total time played in minutes.
      *
      * @return The total time played.
      */
     public int getTotalTimePlayed() {
-        return parentModel.getTotalTimePlayed();
+        // minutes counted before the session log, plus the logged sessions
+        return parentModel.getTotalTimePlayed() + (int) (sessionLog.getTotalMillis() / MINUTE_MILLIS);
     }
 
     /**
@@ -115,5 +200,6 @@ public class ParentalControlController {
      */
     public void resetStats() {
         parentModel.resetStats();
+        sessionLog.clear();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package application.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary form of a {@link GameState}, as an alternative to the JSON saves.
+ *
+ * <p>
+ * Layout, all numbers are varints (7 bits per byte, zigzag for signed values):
+ * </p>
+ *
+ * <pre>
+ * magic "MPET" | version | save slot | last tick millis
+ * player: name | score | inventory: count, then (item code, amount) pairs
+ * pet:    present flag | name | pet type | health | sleep | fullness | happiness | state mask
+ * cooldowns (version 2): count, then (action code, expiry millis) pairs
+ * CRC32C of everything above, 4 bytes big endian
+ * </pre>
+ *
+ * <p>
+ * Items are written with their code from the {@link ItemCatalog}, not their name, and
+ * strings are a length (0 for null, else length + 1) followed by UTF-8 bytes. A save
+ * is usually around 40 bytes. {@link #isBinary(byte[])} tells a binary save from a
+ * JSON one so both can be loaded from the same file names.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class BinarySaveCodec {
+
+    public static final int MAGIC = 0x4D504554; // "MPET"
+    public static final int VERSION = 2;
+
+    private static final int CRC_BYTES = 4;
+
+    private BinarySaveCodec() {
+    }
+
+    /**
+     * Checks whether file content is a binary save.
+     *
+     * @param content the file content
+     * @return true if it starts with the binary magic number
+     */
+    public static boolean isBinary(byte[] content) {
+        return content.length >= 4 && ByteBuffer.wrap(content).getInt(0) == MAGIC;
+    }
+
+    /**
+     * Encodes a game state.
+     *
+     * @param gameState the state to encode
+     * @return the encoded bytes
+     */
+    public static byte[] encode(GameState gameState) {
+        Writer out = new Writer();
+        out.buffer.putInt(MAGIC);
+        out.varint(VERSION);
+        out.signed(gameState.getSaveSlot());
+        out.varlong(gameState.getLastTickMillis());
+
+        Player player = gameState.getPlayer();
+        out.string(player.getName());
+        out.signed(player.getScore());
+
+        Inventory inventory = player.getInventory();
+        out.varint(inventory == null ? 0 : ItemCatalog.size());
+        if (inventory != null) {
+            for (ItemType item : ItemType.values()) {
+                out.varint(item.getCode());
+                out.signed(inventory.getCount(item));
+            }
+        }
+
+        Pet pet = player.getCurrentPet();
+        out.varint(pet == null ? 0 : 1);
+        if (pet != null) {
+            out.string(pet.getName());
+            out.signed(pet.getPetType());
+            out.signed(pet.getHealth());
+            out.signed(pet.getSleep());
+            out.signed(pet.getFullness());
+            out.signed(pet.getHappiness());
+            out.varint(pet.getPetStateMask());
+        }
+
+        Map<String, Long> cooldowns = gameState.getCooldowns();
+        int running = 0;
+        if (cooldowns != null) {
+            for (String action : cooldowns.keySet()) {
+                running += PetAction.fromName(action) != null ? 1 : 0;
+            }
+        }
+        out.varint(running);
+        if (running > 0) {
+            for (Map.Entry<String, Long> entry : cooldowns.entrySet()) {
+                PetAction action = PetAction.fromName(entry.getKey());
+                if (action != null) {
+                    out.varint(action.ordinal()); // the action code
+                    out.varlong(entry.getValue());
+                }
+            }
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.buffer.array(), 0, out.buffer.position());
+        out.ensure(CRC_BYTES);
+        out.buffer.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.buffer.array(), out.buffer.position());
+    }
+
+    /**
+     * Decodes a game state.
+     *
+     * @param content bytes written by encode()
+     * @return the game state
+     * @throws IOException if the content is not a binary save, is from a newer
+     *                     version, is truncated or fails the checksum
+     */
+    public static GameState decode(byte[] content) throws IOException {
+        if (!isBinary(content)) {
+            throw new IOException("Not a binary save");
+        }
+        if (content.length < 4 + 1 + CRC_BYTES) {
+            throw new IOException("Binary save is truncated");
+        }
+
+        int bodyLength = content.length - CRC_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, bodyLength);
+        if (ByteBuffer.wrap(content).getInt(bodyLength) != (int) crc.getValue()) {
+            throw new IOException("Binary save is corrupt (checksum mismatch)");
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(content, 0, bodyLength);
+            in.getInt(); // magic
+            int version = readVarint(in);
+            if (version > VERSION) {
+                throw new IOException("Binary save version " + version + " is newer than this game");
+            }
+
+            int saveSlot = readSigned(in);
+            long lastTickMillis = readVarlong(in);
+
+            Player player = new Player(readString(in), null);
+            player.setScore(readSigned(in));
+
+            Inventory inventory = new Inventory();
+            int items = readVarint(in);
+            for (int i = 0; i < items; i++) {
+                int code = readVarint(in);
+                int amount = readSigned(in);
+                ItemType item = ItemCatalog.fromCode(code);
+                if (item != null) {
+                    inventory.setCount(item, amount);
+                } // items missing from this catalog are skipped
+            }
+            player.setInventory(inventory);
+
+            if (readVarint(in) != 0) {
+                String name = readString(in);
+                int petType = readSigned(in);
+                int health = readSigned(in);
+                int sleep = readSigned(in);
+                int fullness = readSigned(in);
+                int happiness = readSigned(in);
+                Pet pet = new Pet(name, health, sleep, fullness, happiness, null, petType);
+                pet.setPetStateMask(readVarint(in));
+                player.setCurrentPet(pet);
+            }
+
+            GameState gameState = new GameState(player, saveSlot);
+            gameState.setLastTickMillis(lastTickMillis);
+
+            if (version >= 2) {
+                int running = readVarint(in);
+                Map<String, Long> cooldowns = running > 0 ? new LinkedHashMap<>() : null;
+                PetAction[] actions = PetAction.values();
+                for (int i = 0; i < running; i++) {
+                    int code = readVarint(in);
+                    long expiry = readVarlong(in);
+                    if (code < actions.length) {
+                        cooldowns.put(actions[code].getName(), expiry);
+                    } // actions from a newer version are skipped
+                }
+                gameState.setCooldowns(cooldowns);
+            }
+            return gameState;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Binary save is truncated", e);
+        }
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        long value = readVarlong(in);
+        if (value > Integer.MAX_VALUE || value < 0) {
+            throw new IOException("Binary save has a bad number");
+        }
+        return (int) value;
+    }
+
+    private static long readVarlong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Binary save has a bad number");
+    }
+
+    private static int readSigned(ByteBuffer in) throws IOException {
+        long zigzag = readVarlong(in);
+        return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Growable ByteBuffer for encoding
+    private static final class Writer {
+        private ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+        }
+
+        private void varlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void varint(int value) {
+            varlong(value & 0xFFFFFFFFL);
+        }
+
+        private void signed(int value) {
+            varlong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        private void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
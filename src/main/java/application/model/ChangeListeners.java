@@ -0,0 +1,37 @@
+package application.model;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listeners told when a model object changes, shared by Pet, Player and Inventory.
+ *
+ * <p>
+ * Listeners are called on the thread that made the change. A pet and the inventory
+ * it uses are only changed in the pet's {@link PetActor}, so for user actions, decay
+ * and sleep recovery that is a {@code pet-worker} thread, never the FX thread (or
+ * the thread moving a virtual clock, see {@link application.util.VirtualClock}).
+ * Listeners must be short and hand off to the FX thread themselves, as
+ * GameplayScreen does by marking what to redraw. The owning objects keep this in a
+ * transient field, so it is never saved and is created on the first listener.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+final class ChangeListeners {
+
+    private final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    void add(Runnable listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    void remove(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    void fire() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
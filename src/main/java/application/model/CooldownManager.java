@@ -0,0 +1,308 @@
+package application.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import application.util.GameScheduler;
+
+/**
+ * The cooldowns of pet actions, for every pet of the game.
+ *
+ * <p>
+ * A pet is known by the save slot it lives in, and an action that was just done
+ * cannot be done again with the same pet until {@link PetAction#getCooldownMillis()}
+ * has passed. Each cooldown is one expiry time on the game clock, kept in a small
+ * open addressing map from a (pet, action) key to the expiry, both plain longs, so
+ * checking or starting a cooldown does not box or allocate. No thread waits for a
+ * cooldown: the remaining time is worked out from the clock when asked, and a
+ * single task on the {@link GameScheduler} tells the {@link Listener}s when a
+ * cooldown ends, so the UI can enable its buttons again.
+ * </p>
+ *
+ * <p>
+ * Expiries are on the game clock, so they stay right across a restart. A
+ * {@link GameState} takes the running cooldowns of its pet when it is saved and
+ * gives them back here when it is loaded.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class CooldownManager {
+
+    /**
+     * Told when a cooldown starts or ends, on the thread that started it or on the
+     * scheduler thread.
+     */
+    public interface Listener {
+        /**
+         * Called when a cooldown starts or ends.
+         *
+         * @param pet             save slot of the pet
+         * @param action          the action
+         * @param remainingMillis time left, 0 when the cooldown ended
+         */
+        void cooldownChanged(int pet, PetAction action, long remainingMillis);
+    }
+
+    private static final PetAction[] ACTIONS = PetAction.values();
+    private static final CooldownManager SHARED = new CooldownManager(GameScheduler.shared());
+
+    private final GameScheduler scheduler;
+    private final ExpiryMap expiries = new ExpiryMap(); // guarded by this
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a manager that reads the time from a scheduler and wakes up on it.
+     *
+     * @param scheduler the scheduler
+     */
+    public CooldownManager(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the manager shared by the whole game.
+     *
+     * @return the shared CooldownManager
+     */
+    public static CooldownManager shared() {
+        return SHARED;
+    }
+
+    /**
+     * Starts the cooldown of an action if it is not cooling down already. Actions
+     * without a cooldown are always allowed.
+     *
+     * @param pet    save slot of the pet
+     * @param action the action about to be done
+     * @return true if the action can be done, false if it is still cooling down
+     */
+    public boolean tryStart(int pet, PetAction action) {
+        long cooldown = action.getCooldownMillis();
+        if (cooldown <= 0) {
+            return true;
+        }
+        long now = scheduler.millis();
+        long expiry = now + cooldown;
+        synchronized (this) {
+            if (expiries.get(keyOf(pet, action)) > now) {
+                return false;
+            }
+            expiries.put(keyOf(pet, action), expiry);
+        }
+        wakeUpAt(pet, action, expiry, now);
+        fire(pet, action, cooldown);
+        return true;
+    }
+
+    /**
+     * Gets the time left before an action can be done again.
+     *
+     * @param pet    save slot of the pet
+     * @param action the action
+     * @return the time left in milliseconds, 0 if the action is not cooling down
+     */
+    public synchronized long remainingMillis(int pet, PetAction action) {
+        long expiry = expiries.get(keyOf(pet, action));
+        return expiry == 0 ? 0 : Math.max(0, expiry - scheduler.millis());
+    }
+
+    /**
+     * Checks whether an action is cooling down.
+     *
+     * @param pet    save slot of the pet
+     * @param action the action
+     * @return true if the action cannot be done yet
+     */
+    public boolean isCoolingDown(int pet, PetAction action) {
+        return remainingMillis(pet, action) > 0;
+    }
+
+    /**
+     * Gets the running cooldowns of a pet, for saving.
+     *
+     * @param pet save slot of the pet
+     * @return expiry time by action name, or null if nothing is cooling down
+     */
+    public synchronized Map<String, Long> snapshot(int pet) {
+        long now = scheduler.millis();
+        Map<String, Long> running = null;
+        for (PetAction action : ACTIONS) {
+            long expiry = expiries.get(keyOf(pet, action));
+            if (expiry > now) {
+                if (running == null) {
+                    running = new LinkedHashMap<>();
+                }
+                running.put(action.getName(), expiry);
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Puts back the cooldowns of a loaded pet. A cooldown already running here that
+     * ends later is kept.
+     *
+     * @param pet   save slot of the pet
+     * @param saved expiry time by action name as returned by snapshot(), can be
+     *              null
+     */
+    public void restore(int pet, Map<String, Long> saved) {
+        if (saved == null) {
+            return;
+        }
+        long now = scheduler.millis();
+        for (Map.Entry<String, Long> entry : saved.entrySet()) {
+            PetAction action = PetAction.fromName(entry.getKey());
+            Long expiry = entry.getValue();
+            if (action == null || expiry == null || expiry <= now) {
+                continue; // unknown action or already over
+            }
+            synchronized (this) {
+                if (expiries.get(keyOf(pet, action)) >= expiry) {
+                    continue;
+                }
+                expiries.put(keyOf(pet, action), expiry);
+            }
+            wakeUpAt(pet, action, expiry, now);
+            fire(pet, action, expiry - now);
+        }
+    }
+
+    /**
+     * Registers a listener for cooldowns starting and ending, once however many
+     * times it is added.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void wakeUpAt(int pet, PetAction action, long expiry, long now) {
+        scheduler.schedule(() -> expired(pet, action, expiry), expiry - now);
+    }
+
+    // Runs on the scheduler when a cooldown should be over, unless it was restarted
+    private void expired(int pet, PetAction action, long expiry) {
+        synchronized (this) {
+            if (expiries.get(keyOf(pet, action)) != expiry) {
+                return; // replaced by a later cooldown, which has its own wakeup
+            }
+            if (expiry > scheduler.millis()) {
+                wakeUpAt(pet, action, expiry, scheduler.millis()); // the clock was behind
+                return;
+            }
+            expiries.remove(keyOf(pet, action));
+        }
+        fire(pet, action, 0);
+    }
+
+    private void fire(int pet, PetAction action, long remainingMillis) {
+        for (Listener listener : listeners) {
+            listener.cooldownChanged(pet, action, remainingMillis);
+        }
+    }
+
+    private static long keyOf(int pet, PetAction action) {
+        return ((long) pet << 8) | action.ordinal();
+    }
+
+    /**
+     * Open addressing hash map from long keys to long values with linear probing.
+     * A value of 0 marks an empty slot, expiries are always after 0. Package
+     * private for its tests.
+     */
+    static final class ExpiryMap {
+
+        private long[] keys = new long[16];
+        private long[] values = new long[16];
+        private int size;
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slotOf(key, mask);; i = (i + 1) & mask) {
+                if (values[i] == 0) {
+                    return 0;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = slotOf(key, mask);
+            while (values[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = slotOf(key, mask);
+            while (values[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                return;
+            }
+            // Shift later entries of the probe run back so lookups still find them
+            for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+                int home = slotOf(keys[j], mask);
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            values[i] = 0;
+            size--;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        static int slotOf(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
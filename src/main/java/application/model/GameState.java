@@ -1,8 +1,18 @@
 package application.model;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.google.gson.JsonParseException;
+
+import application.util.SaveWriter;
+
 public class GameState {
     private Player player; // Player details
     private int saveSlot; // The save slot 
+    private long lastTickMillis; // Time the pet's stats were last brought up to date, 0 for old saves
+    private Map<String, Long> cooldowns; // Running cooldowns of the pet, expiry by action name, null if none
 
     public GameState(Player player, int saveSlot){
         this.player = player;
@@ -26,5 +36,84 @@ public class GameState {
         this.saveSlot = saveSlot;
         
     }
+    //Getter Method
+    public long getLastTickMillis() {
+        return lastTickMillis;
+    }
+    //Setter method
+    public void setLastTickMillis(long lastTickMillis) {
+        this.lastTickMillis = lastTickMillis;
+    }
+
+    //Getter Method
+    public Map<String, Long> getCooldowns() {
+        return cooldowns;
+    }
+    //Setter method
+    public void setCooldowns(Map<String, Long> cooldowns) {
+        this.cooldowns = cooldowns;
+    }
+
+    /**
+     * Reads a save file's content, either format.
+     *
+     * @param content the file content, binary or JSON
+     * @return the game state
+     * @throws IOException if the content is not a valid save
+     */
+    public static GameState fromBytes(byte[] content) throws IOException {
+        if (BinarySaveCodec.isBinary(content)) {
+            return BinarySaveCodec.decode(content);
+        }
+        try {
+            GameState gameState = SaveWriter.gson().fromJson(new String(content, StandardCharsets.UTF_8),
+                    GameState.class);
+            if (gameState == null) {
+                throw new IOException("Save is empty");
+            }
+            return gameState;
+        } catch (JsonParseException e) {
+            throw new IOException("Save is not valid JSON", e);
+        }
+    }
+
+    /**
+     * Stamps the state with the time its pet stats are valid at and takes the
+     * running cooldowns of the pet, call right before saving. Settles the pet's
+     * decay, so call it in the pet's actor, see SaveRepository.save().
+     *
+     * @param nowMillis the current time
+     */
+    public void markSaved(long nowMillis) {
+        Pet pet = player == null ? null : player.getCurrentPet();
+        this.lastTickMillis = pet == null ? nowMillis : pet.settleDecay(nowMillis);
+        this.cooldowns = CooldownManager.shared().snapshot(saveSlot);
+    }
+
+    /**
+     * Gives the saved cooldowns of the pet back to the CooldownManager, call after
+     * loading.
+     */
+    public void restoreCooldowns() {
+        CooldownManager.shared().restore(saveSlot, cooldowns);
+    }
+
+    /**
+     * Applies the stat decay for the time that passed since the save was written.
+     * The whole gap is applied in one closed form step (see LazyDecay), so a save
+     * left for months loads as fast as one left for minutes.
+     *
+     * @param nowMillis the current time
+     */
+    public void catchUp(long nowMillis) {
+        Pet pet = player == null ? null : player.getCurrentPet();
+        if (pet == null || lastTickMillis <= 0 || nowMillis <= lastTickMillis) {
+            return; // nothing to do, or a save from before timestamps were recorded
+        }
+
+        long ticks = (nowMillis - lastTickMillis) / LazyDecay.TICK_MILLIS;
+        LazyDecay.fastForward(pet, ticks);
+        this.lastTickMillis += ticks * LazyDecay.TICK_MILLIS; // the unfinished tick is kept for later
+    }
 
-}
\ No newline at end of file
+}
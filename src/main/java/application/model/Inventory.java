@@ -1,96 +1,342 @@
 package application.model;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * This class represents the Player's Inventory.
  * Each inventory has a specific amount of foodItems and giftItems.
- * 
+ *
+ * <p>
+ * The amounts are kept in an int array indexed by {@link ItemType#getId()}, and the
+ * total of each category is kept up to date with them, so adding, using and counting
+ * items never searches, boxes or allocates. {@link #add(ItemType, int)} and
+ * {@link #tryConsume(ItemType, int)} report problems with a {@link Result} instead of
+ * an exception. Saves keep the old shape, a {@code foodItems} and a {@code giftItems}
+ * object of label to amount, see {@link JsonShape}.
+ * </p>
+ *
+ * <p>
+ * The inventory can be changed from any thread without locks. Each amount is an
+ * element of an {@link AtomicIntegerArray} and is only taken from with a compare and
+ * set that checks there is enough, so two threads using the last item cannot both
+ * get it and an amount never goes below 0. {@link #tryConsumeAll(ItemType[], int[])}
+ * takes several items at once, all of them or none. The category totals follow the
+ * amounts right after each change, a reader racing a change can see a total that
+ * is one change behind.
+ * </p>
+ *
  * @author CS2212 Group 31
  */
-
+@JsonAdapter(Inventory.JsonShape.class)
 public class Inventory {
 
-    private HashMap<String, Integer> foodItems;
-    private HashMap<String, Integer> giftItems;
+    /**
+     * Outcome of changing the amount of an item.
+     */
+    public enum Result {
+        OK,
+        UNKNOWN_ITEM,
+        INVALID_QUANTITY,
+        NOT_ENOUGH
+    }
 
-    // private int foodItems;
-    // private int giftItems;
+    private static final ItemType[] ITEMS = ItemType.values();
+    private static final ItemType.Category[] CATEGORIES = ItemType.Category.values();
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(ITEMS.length);
+    private final AtomicIntegerArray totals = new AtomicIntegerArray(CATEGORIES.length); // sum of counts per category
+    private transient volatile ChangeListeners changeListeners; // not saved, null until someone listens
 
     public Inventory() {
-        foodItems = new HashMap<String, Integer>();
-        giftItems = new HashMap<String, Integer>();
+    }
 
-        foodItems.put("fruit", 0);
-        foodItems.put("meat", 0);
-        foodItems.put("vegetable", 0);
+    /**
+     * Adds some of an item
+     *
+     * @param item     the item
+     * @param quantity how many to add, at least 1
+     * @return OK, or why nothing was added
+     */
+    public Result add(ItemType item, int quantity) {
+        if (item == null) {
+            return Result.UNKNOWN_ITEM;
+        }
+        if (quantity <= 0) {
+            return Result.INVALID_QUANTITY;
+        }
+        int id = item.getId();
+        int count;
+        do {
+            count = counts.get(id);
+            if (count > Integer.MAX_VALUE - quantity) {
+                return Result.INVALID_QUANTITY; // would overflow
+            }
+        } while (!counts.compareAndSet(id, count, count + quantity));
+        totals.addAndGet(item.getCategory().ordinal(), quantity);
+        fireChanged();
+        return Result.OK;
+    }
 
-        giftItems.put("toy", 0);
-        giftItems.put("play place", 0);
-        giftItems.put("ball", 0);
+    /**
+     * Uses some of an item, only if there are enough of it
+     *
+     * @param item     the item
+     * @param quantity how many to use, at least 1
+     * @return OK, or why nothing was used
+     */
+    public Result tryConsume(ItemType item, int quantity) {
+        if (item == null) {
+            return Result.UNKNOWN_ITEM;
+        }
+        if (quantity <= 0) {
+            return Result.INVALID_QUANTITY;
+        }
+        if (!take(item.getId(), quantity)) {
+            return Result.NOT_ENOUGH;
+        }
+        totals.addAndGet(item.getCategory().ordinal(), -quantity);
+        fireChanged();
+        return Result.OK;
     }
 
-    public void addItem(String item, int quantity) throws Exception {
-        for (String i : foodItems.keySet()) {
-            if (i.equals(item)) {// Checks if already stored
-                foodItems.put(i, foodItems.get(i) + quantity);
-                return;
-            }
+    /**
+     * Uses several items at once, either all of them or, if any is missing, none.
+     * An item may be listed more than once, its quantities are added up.
+     *
+     * <p>
+     * Items are taken one at a time in id order and given back if a later one is
+     * missing, so the inventory is never below 0 and never keeps part of the
+     * request. While a request that fails is being given back, another thread can
+     * briefly see those items as used.
+     * </p>
+     *
+     * @param items      the items
+     * @param quantities how many of each item to use, at least 1, same length as
+     *                   items
+     * @return OK, or why nothing was used
+     */
+    public Result tryConsumeAll(ItemType[] items, int[] quantities) {
+        if (items == null || quantities == null || items.length != quantities.length) {
+            return Result.INVALID_QUANTITY;
         }
-        for (String i : giftItems.keySet()) {
-            if (i.equals(item)) {// Checks if already stored
-                giftItems.put(i, giftItems.get(i) + quantity);
-                return;
+        int[] needed = new int[ITEMS.length]; // per item id, duplicates added up
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                return Result.UNKNOWN_ITEM;
+            }
+            int id = items[i].getId();
+            if (quantities[i] <= 0 || needed[id] > Integer.MAX_VALUE - quantities[i]) {
+                return Result.INVALID_QUANTITY;
             }
+            needed[id] += quantities[i];
         }
-        throw new Exception("No such item found");
-    }
 
-    public void useItem(String item, int quantity) throws Exception {
-        for (String i : foodItems.keySet()) {
-            if (i.equals(item) && foodItems.get(i) > 0) {// Checks if already stored
-                foodItems.put(i, foodItems.get(i) - quantity);
-                return;
+        for (int id = 0; id < needed.length; id++) {
+            if (needed[id] > 0 && !take(id, needed[id])) {
+                for (int back = 0; back < id; back++) { // give back what was taken
+                    if (needed[back] > 0) {
+                        counts.addAndGet(back, needed[back]);
+                    }
+                }
+                return Result.NOT_ENOUGH;
             }
         }
-        for (String i : giftItems.keySet()) {
-            if (i.equals(item) && giftItems.get(i) > 0) {// Checks if already stored
-                giftItems.put(i, giftItems.get(i) - quantity);
-                return;
+        for (int id = 0; id < needed.length; id++) {
+            if (needed[id] > 0) {
+                totals.addAndGet(ITEMS[id].getCategory().ordinal(), -needed[id]);
             }
         }
-        // The item not found Error message
-        throw new Exception("No such item found");
+        fireChanged();
+        return Result.OK;
     }
 
-    public int checkItem(String item) throws Exception {
-        for (String i : foodItems.keySet()) {
-            if (i.equals(item)) {// Checks if already stored
-                return foodItems.get(i);
+    // Takes quantity of an item if there are enough, never leaves it below 0
+    private boolean take(int id, int quantity) {
+        int count;
+        do {
+            count = counts.get(id);
+            if (count < quantity) {
+                return false;
             }
+        } while (!counts.compareAndSet(id, count, count - quantity));
+        return true;
+    }
+
+    public void addItem(String item, int quantity) throws Exception {
+        if (add(ItemType.fromLabel(item), quantity) != Result.OK) {
+            throw new Exception("No such item found");
         }
-        for (String i : giftItems.keySet()) {
-            if (i.equals(item)) {// Checks if already stored
-                return giftItems.get(i);
-            }
+    }
+
+    public void useItem(String item, int quantity) throws Exception {
+        if (tryConsume(ItemType.fromLabel(item), quantity) != Result.OK) {
+            // The item not found Error message
+            throw new Exception("No such item found");
         }
-        throw new Exception("No such item found");
+    }
+
+    /**
+     * Uses an item without throwing, used by Pet.interact()
+     *
+     * @param item     the item to use
+     * @param quantity how many to use
+     * @return true if there were enough of the item and it was used, false
+     *         otherwise
+     */
+    public boolean useItem(ItemType item, int quantity) {
+        return tryConsume(item, quantity) == Result.OK;
+    }
+
+    /**
+     * Gets how many of an item there are
+     *
+     * @param item the item
+     * @return the amount (int)
+     */
+    public int getCount(ItemType item) {
+        return counts.get(item.getId());
+    }
+
+    /**
+     * Gets how many items of a category there are, kept up to date as items change
+     *
+     * @param category the category
+     * @return the amount (int)
+     */
+    public int getTotal(ItemType.Category category) {
+        return totals.get(category.ordinal());
+    }
+
+    // Sets the amount of an item directly, used when loading a save
+    void setCount(ItemType item, int count) {
+        int old = counts.getAndSet(item.getId(), count);
+        totals.addAndGet(item.getCategory().ordinal(), count - old);
+        fireChanged();
+    }
+
+    public int checkItem(String item) throws Exception {
+        ItemType type = ItemType.fromLabel(item);
+        if (type == null) {
+            throw new Exception("No such item found");
+        }
+        return getCount(type);
     }
 
     public int getFoodItems() {
-        return foodItems.values().stream().mapToInt(Integer::intValue).sum();
+        return getTotal(ItemType.Category.FOOD);
     }
 
     public int getGiftItems() {
-        return giftItems.values().stream().mapToInt(Integer::intValue).sum();
+        return getTotal(ItemType.Category.GIFT);
     }
 
     // New methods to get specific item quantities
     public int getFoodItems(String itemType) {
-        return foodItems.getOrDefault(itemType.toLowerCase(), 0);
+        return countOf(itemType, ItemType.Category.FOOD);
     }
 
     public int getGiftItems(String itemType) {
-        return giftItems.getOrDefault(itemType.toLowerCase(), 0);
+        return countOf(itemType, ItemType.Category.GIFT);
+    }
+
+    private int countOf(String label, ItemType.Category category) {
+        ItemType item = ItemType.fromLabel(label);
+        return item != null && item.getCategory() == category ? getCount(item) : 0;
+    }
+
+    /**
+     * Registers a listener that runs every time the amount of any item changes. It
+     * runs on the thread that made the change.
+     *
+     * @param listener the listener (Runnable)
+     */
+    public synchronized void addChangeListener(Runnable listener) {
+        if (this.changeListeners == null) {
+            this.changeListeners = new ChangeListeners();
+        }
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addChangeListener
+     *
+     * @param listener the listener (Runnable)
+     */
+    public synchronized void removeChangeListener(Runnable listener) {
+        if (this.changeListeners != null) {
+            this.changeListeners.remove(listener);
+        }
+    }
+
+    private void fireChanged() {
+        ChangeListeners listeners = this.changeListeners;
+        if (listeners != null) {
+            listeners.fire();
+        }
+    }
+
+    /**
+     * Reads and writes an inventory in the JSON shape of saves from before the item
+     * array: {"foodItems": {"fruit": 2, ...}, "giftItems": {"toy": 0, ...}}.
+     * Unknown labels are skipped and missing ones are 0.
+     */
+    static final class JsonShape extends TypeAdapter<Inventory> {
+
+        @Override
+        public void write(JsonWriter out, Inventory inventory) throws IOException {
+            if (inventory == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeCategory(out, "foodItems", inventory, ItemType.Category.FOOD);
+            writeCategory(out, "giftItems", inventory, ItemType.Category.GIFT);
+            out.endObject();
+        }
+
+        private static void writeCategory(JsonWriter out, String name, Inventory inventory,
+                ItemType.Category category) throws IOException {
+            out.name(name).beginObject();
+            for (ItemType item : ItemCatalog.inCategory(category)) {
+                out.name(item.getLabel()).value(inventory.getCount(item));
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Inventory read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Inventory inventory = new Inventory();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (!"foodItems".equals(name) && !"giftItems".equals(name) || in.peek() != JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                    continue;
+                }
+                in.beginObject();
+                while (in.hasNext()) {
+                    ItemType item = ItemType.fromLabel(in.nextName());
+                    if (item == null || in.peek() != JsonToken.NUMBER) {
+                        in.skipValue();
+                        continue;
+                    }
+                    inventory.setCount(item, in.nextInt());
+                }
+                in.endObject();
+            }
+            in.endObject();
+            return inventory;
+        }
     }
 }
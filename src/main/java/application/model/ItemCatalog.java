@@ -0,0 +1,258 @@
+package application.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.gson.JsonParseException;
+
+import application.util.SaveWriter;
+
+/**
+ * The items of the game, read from {@code items.json} when the game starts.
+ *
+ * <p>
+ * Each entry of the catalog gives an item's label (used in saves), display name,
+ * save code, category, icon, stat changes and reward rules, so adding an item only
+ * means adding an entry. The catalog is read once and turned into dense tables
+ * indexed by {@link ItemType#getId()}: the items themselves, the items of each
+ * category, the items by save code and the stat changes, which {@link PetEffects}
+ * copies into its table. After that, the only string work left is turning a label
+ * into an item with one hash lookup.
+ * </p>
+ *
+ * <p>
+ * The catalog is the {@code /items.json} resource, or the file given with
+ * {@code -Dmypet.itemCatalog=path}. A catalog that cannot be read or has mistakes
+ * in it stops the game at startup instead of losing items later.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class ItemCatalog {
+
+    public static final String RESOURCE = "/items.json";
+
+    private static final ItemType[] ITEMS;
+    private static final ItemType[][] BY_CATEGORY;
+    private static final ItemType[] BY_CODE; // null where no item has the code
+    private static final Map<String, ItemType> BY_LABEL = new HashMap<>();
+    private static final int[] DELTAS; // STAT_COUNT deltas per item, in id order
+
+    static {
+        CatalogFile file = read();
+        if (file == null || file.items == null || file.items.length == 0) {
+            throw new IllegalStateException("Item catalog has no items");
+        }
+        Reward defaults = file.reward != null ? file.reward : new Reward();
+
+        ItemType[] items = new ItemType[file.items.length];
+        int[] deltas = new int[items.length * PetEffects.STAT_COUNT];
+        int[] inCategory = new int[ItemType.Category.values().length];
+        int maxCode = 0;
+
+        for (int id = 0; id < items.length; id++) {
+            Entry entry = file.items[id];
+            if (entry == null || entry.label == null || entry.label.isBlank()) {
+                throw new IllegalStateException("Item catalog entry " + id + " has no label");
+            }
+            if (entry.category == null) {
+                throw new IllegalStateException("Item " + entry.label + " has no category, or an unknown one");
+            }
+            if (entry.code < 0) {
+                throw new IllegalStateException("Item " + entry.label + " has a negative code");
+            }
+            Reward reward = entry.reward != null ? entry.reward : defaults;
+            int clicks = reward.clicks != null ? reward.clicks : defaults.clicksOr(5);
+            long window = reward.windowMillis != null ? reward.windowMillis : defaults.windowOr(5000);
+            int amount = reward.amount != null ? reward.amount : defaults.amountOr(1);
+            if (clicks <= 0 || window <= 0 || amount <= 0) {
+                throw new IllegalStateException("Item " + entry.label + " has a reward rule that is not positive");
+            }
+
+            String name = entry.name != null ? entry.name : entry.label;
+            items[id] = new ItemType(id, entry.code, entry.label, name, entry.category, entry.icon, clicks, window,
+                    amount);
+            register(entry.label, items[id]);
+            if (!name.equalsIgnoreCase(entry.label)) {
+                register(name, items[id]);
+            }
+
+            int base = id * PetEffects.STAT_COUNT;
+            deltas[base + PetEffects.HEALTH] = entry.health;
+            deltas[base + PetEffects.SLEEP] = entry.sleep;
+            deltas[base + PetEffects.FULLNESS] = entry.fullness;
+            deltas[base + PetEffects.HAPPINESS] = entry.happiness;
+
+            inCategory[entry.category.ordinal()]++;
+            maxCode = Math.max(maxCode, entry.code);
+        }
+
+        ItemType[] byCode = new ItemType[maxCode + 1];
+        ItemType[][] byCategory = new ItemType[inCategory.length][];
+        for (int c = 0; c < byCategory.length; c++) {
+            byCategory[c] = new ItemType[inCategory[c]];
+            inCategory[c] = 0;
+        }
+        for (ItemType item : items) {
+            if (byCode[item.getCode()] != null) {
+                throw new IllegalStateException("Items " + byCode[item.getCode()].getLabel() + " and "
+                        + item.getLabel() + " have the same code " + item.getCode());
+            }
+            byCode[item.getCode()] = item;
+            int c = item.getCategory().ordinal();
+            byCategory[c][inCategory[c]++] = item;
+        }
+
+        ITEMS = items;
+        BY_CATEGORY = byCategory;
+        BY_CODE = byCode;
+        DELTAS = deltas;
+    }
+
+    private ItemCatalog() {
+    }
+
+    // Registered as written and in lower case, so most lookups need no case change
+    private static void register(String key, ItemType item) {
+        ItemType other = BY_LABEL.put(key.toLowerCase(Locale.ROOT), item);
+        if (other != null && other != item) {
+            throw new IllegalStateException("Items " + other.getLabel() + " and " + item.getLabel()
+                    + " have the same label or name " + key);
+        }
+        BY_LABEL.put(key, item);
+    }
+
+    /**
+     * Gets every item.
+     *
+     * @return the items ordered by id, do not change the array
+     */
+    static ItemType[] items() {
+        return ITEMS;
+    }
+
+    /**
+     * Gets the number of items.
+     *
+     * @return how many items the catalog has
+     */
+    public static int size() {
+        return ITEMS.length;
+    }
+
+    /**
+     * Gets an item by its id.
+     *
+     * @param id the dense id, from 0 to size() - 1
+     * @return the item
+     */
+    public static ItemType get(int id) {
+        return ITEMS[id];
+    }
+
+    /**
+     * Gets the items of a category, in catalog order.
+     *
+     * @param category the category
+     * @return the items, do not change the array
+     */
+    public static ItemType[] inCategory(ItemType.Category category) {
+        return BY_CATEGORY[category.ordinal()];
+    }
+
+    /**
+     * Looks up an item by its code in binary saves.
+     *
+     * @param code the save code
+     * @return the item, or null if no item has the code (e.g. a save from a newer
+     *         catalog)
+     */
+    public static ItemType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Looks up an item by its label or its name, ignoring case.
+     *
+     * @param label the label or name, such as "play place" or "Play Place"
+     * @return the item, or null if there is none
+     */
+    public static ItemType find(String label) {
+        if (label == null) {
+            return null;
+        }
+        ItemType item = BY_LABEL.get(label);
+        return item != null ? item : BY_LABEL.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    // Copies the stat changes of every item into a PetEffects table, starting at a row
+    static void copyDeltas(int[] target, int firstRow) {
+        System.arraycopy(DELTAS, 0, target, firstRow * PetEffects.STAT_COUNT, DELTAS.length);
+    }
+
+    private static CatalogFile read() {
+        String override = System.getProperty("mypet.itemCatalog");
+        try (Reader reader = open(override)) {
+            return SaveWriter.gson().fromJson(reader, CatalogFile.class);
+        } catch (IOException | JsonParseException e) {
+            throw new IllegalStateException("Could not read the item catalog "
+                    + (override != null ? override : RESOURCE) + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Reader open(String override) throws IOException {
+        if (override != null) {
+            return Files.newBufferedReader(Path.of(override), StandardCharsets.UTF_8);
+        }
+        InputStream stream = ItemCatalog.class.getResourceAsStream(RESOURCE);
+        if (stream == null) {
+            throw new IOException("resource not found");
+        }
+        return new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+
+    // Shape of items.json
+    private static final class CatalogFile {
+        Reward reward; // defaults for items without their own
+        Entry[] items;
+    }
+
+    private static final class Entry {
+        String label;
+        String name;
+        int code;
+        ItemType.Category category;
+        String icon;
+        int health;
+        int sleep;
+        int fullness;
+        int happiness;
+        Reward reward;
+    }
+
+    private static final class Reward {
+        Integer clicks; // clicks needed for one reward
+        Long windowMillis; // time the clicks have to be made in
+        Integer amount; // items given per reward
+
+        int clicksOr(int fallback) {
+            return clicks != null ? clicks : fallback;
+        }
+
+        long windowOr(long fallback) {
+            return windowMillis != null ? windowMillis : fallback;
+        }
+
+        int amountOr(int fallback) {
+            return amount != null ? amount : fallback;
+        }
+    }
+}
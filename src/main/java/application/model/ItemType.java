@@ -0,0 +1,165 @@
+package application.model;
+
+/**
+ * An item a player can keep in the {@link Inventory} and use on their pet. Each
+ * item belongs to a category, food items are used with {@link PetAction#FEED} and
+ * gift items with {@link PetAction#GIVE_GIFT}.
+ *
+ * <p>
+ * Items are not written in code, they are read from the {@link ItemCatalog} when the
+ * game starts. Every item has a dense id, its position in the catalog, which indexes
+ * the inventory counts and the stat changes in {@link PetEffects}.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class ItemType {
+
+    /**
+     * The two kinds of items held by the inventory.
+     */
+    public enum Category {
+        FOOD,
+        GIFT
+    }
+
+    private final int id;
+    private final int code;
+    private final String label;
+    private final String name;
+    private final Category category;
+    private final String icon;
+    private final int rewardClicks;
+    private final long rewardWindowMillis;
+    private final int rewardAmount;
+
+    ItemType(int id, int code, String label, String name, Category category, String icon, int rewardClicks,
+            long rewardWindowMillis, int rewardAmount) {
+        this.id = id;
+        this.code = code;
+        this.label = label;
+        this.name = name;
+        this.category = category;
+        this.icon = icon;
+        this.rewardClicks = rewardClicks;
+        this.rewardWindowMillis = rewardWindowMillis;
+        this.rewardAmount = rewardAmount;
+    }
+
+    /**
+     * Gets every item of the catalog.
+     *
+     * @return the items ordered by id, do not change the array
+     */
+    public static ItemType[] values() {
+        return ItemCatalog.items();
+    }
+
+    /**
+     * Looks up an item by its label or its name. The lookup ignores case so that
+     * labels shown in the UI ("Play Place") also match.
+     *
+     * @param label the item label, such as "fruit" or "play place"
+     * @return the matching item, or null if there is none
+     */
+    public static ItemType fromLabel(String label) {
+        return ItemCatalog.find(label);
+    }
+
+    /**
+     * Accessor method to get the dense id of the item, from 0 to the number of items
+     *
+     * @return id (int)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Accessor method to get the code of the item in binary saves, which never
+     * changes once an item is released
+     *
+     * @return code (int)
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Accessor method to get the label used in the inventory and save files
+     *
+     * @return label (String)
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Accessor method to get the name shown to the player
+     *
+     * @return name (String)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Accessor method to get the category of the item
+     *
+     * @return category (Category)
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Accessor method to get the Ikonli icon literal of the item, such as "fas-carrot"
+     *
+     * @return icon (String)
+     */
+    public String getIcon() {
+        return icon;
+    }
+
+    /**
+     * Gets the change one unit of the item makes to a stat of the pet
+     *
+     * @param stat one of PetEffects.HEALTH, SLEEP, FULLNESS or HAPPINESS
+     * @return the change to the stat (int)
+     */
+    public int getDelta(int stat) {
+        return PetEffects.delta(PetEffects.rowOf(this), stat);
+    }
+
+    /**
+     * Accessor method to get how many clicks on the reward page earn the item
+     *
+     * @return rewardClicks (int)
+     */
+    public int getRewardClicks() {
+        return rewardClicks;
+    }
+
+    /**
+     * Accessor method to get the time in which the reward clicks have to be made
+     *
+     * @return rewardWindowMillis (long)
+     */
+    public long getRewardWindowMillis() {
+        return rewardWindowMillis;
+    }
+
+    /**
+     * Accessor method to get how many of the item one reward gives
+     *
+     * @return rewardAmount (int)
+     */
+    public int getRewardAmount() {
+        return rewardAmount;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
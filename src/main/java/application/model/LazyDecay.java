@@ -0,0 +1,282 @@
+package application.model;
+
+/**
+ * Lazy, timestamp based stat decay for a {@link Pet}.
+ *
+ * <p>
+ * Instead of changing the pet on every decay tick, a pet in lazy mode only
+ * remembers when its stats were last evaluated and the decay rates of its species.
+ * When a stat is read, the number of whole ticks since then is worked out and all
+ * of them are applied at once in closed form, including the health penalties of
+ * {@link Pet#checkAndAddState()} and death. A pet that nobody looks at costs no
+ * CPU at all.
+ * </p>
+ *
+ * <p>
+ * Reading only works the stats out, see {@link #read(Pet, long, View)}, so any
+ * thread can read. The pet is changed by {@link #evaluate(Pet, long)}, which is
+ * only called before a change to the pet and so runs in the pet's
+ * {@link PetActor} like every other change.
+ * </p>
+ *
+ * <p>
+ * A tick is modelled exactly as the stat decay timer runs it: the stats decay, then
+ * the states are checked twice, once at the end of {@link Pet#adjustStats()} and
+ * once by the timer. Each check kills a pet that has no health left, or else takes
+ * the penalties of a tired or hungry pet.
+ * </p>
+ *
+ * <p>
+ * Rates are the mean decay of the species per tick in tenths of a point, so the
+ * random 0 to 5 decay of a plain Pet becomes 2.5 points per tick. After {@code n}
+ * ticks a stat has lost {@code floor(rate * n / 10)} points. The tenths left over by
+ * the floor are carried to the next evaluation, so a pet read every tick decays
+ * exactly as much as one read once. The static helpers are also used to
+ * fast-forward saves and to predict threshold crossings.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class LazyDecay {
+
+    public static final long TICK_MILLIS = 5000; // one decay tick, same as the stat decay timer
+    public static final int PENALTY = 5; // health / happiness lost per state check with no sleep or food
+    public static final int CHECKS_PER_TICK = 2; // state checks the decay timer runs per tick
+
+    private final int sleepRate;
+    private final int fullnessRate;
+    private final int happinessRate;
+    private long lastEvaluatedMillis;
+    private final int[] carry = new int[PetEffects.STAT_COUNT]; // tenths lost beyond the stats, by stat
+
+    /**
+     * Starts lazy decay for a species at the given time.
+     *
+     * @param species   decay rules to use
+     * @param nowMillis time the stats are valid at
+     */
+    public LazyDecay(PetSpecies species, long nowMillis) {
+        this.sleepRate = sleepRateOf(species);
+        this.fullnessRate = fullnessRateOf(species);
+        this.happinessRate = happinessRateOf(species);
+        this.lastEvaluatedMillis = nowMillis;
+    }
+
+    /**
+     * The stats of a pet at some time, as worked out by read().
+     */
+    static final class View {
+        final int[] stats = new int[PetEffects.STAT_COUNT]; // indexed by the PetEffects stat constants
+        final int[] carry = new int[PetEffects.STAT_COUNT]; // tenths lost beyond each stat
+        int states;
+        long validAtMillis; // start of the tick the stats are for
+    }
+
+    /**
+     * Works out the stats of the pet at a time without changing the pet.
+     *
+     * @param pet       the pet owning this decay
+     * @param nowMillis the current time
+     * @param view      receives the stats
+     */
+    synchronized void read(Pet pet, long nowMillis, View view) {
+        long ticks = Math.max(0, (nowMillis - lastEvaluatedMillis) / TICK_MILLIS);
+        view.validAtMillis = lastEvaluatedMillis + ticks * TICK_MILLIS;
+        if (ticks == 0) {
+            view.stats[PetEffects.HEALTH] = pet.rawHealth();
+            view.stats[PetEffects.SLEEP] = pet.rawSleep();
+            view.stats[PetEffects.FULLNESS] = pet.rawFullness();
+            view.stats[PetEffects.HAPPINESS] = pet.rawHappiness();
+            view.states = pet.rawStates();
+        } else {
+            view.states = project(pet.rawHealth(), pet.rawSleep(), pet.rawFullness(), pet.rawHappiness(),
+                    sleepRate, fullnessRate, happinessRate, carry, ticks, view.stats);
+        }
+        view.carry[PetEffects.SLEEP] = remainder(sleepRate, carry[PetEffects.SLEEP], ticks);
+        view.carry[PetEffects.FULLNESS] = remainder(fullnessRate, carry[PetEffects.FULLNESS], ticks);
+        view.carry[PetEffects.HAPPINESS] = remainder(happinessRate, carry[PetEffects.HAPPINESS], ticks);
+    }
+
+    /**
+     * Applies every whole tick that passed since the last evaluation to the pet,
+     * without telling its change listeners. Only call from the pet's actor.
+     *
+     * @param pet       the pet owning this decay
+     * @param nowMillis the current time
+     * @return true if the stats changed
+     */
+    synchronized boolean evaluate(Pet pet, long nowMillis) {
+        long ticks = (nowMillis - lastEvaluatedMillis) / TICK_MILLIS;
+        if (ticks <= 0) {
+            return false;
+        }
+        lastEvaluatedMillis += ticks * TICK_MILLIS; // keep the part of the tick that has not passed yet
+
+        int[] stats = new int[PetEffects.STAT_COUNT];
+        int states = project(pet.rawHealth(), pet.rawSleep(), pet.rawFullness(), pet.rawHappiness(),
+                sleepRate, fullnessRate, happinessRate, carry, ticks, stats);
+        carry[PetEffects.SLEEP] = remainder(sleepRate, carry[PetEffects.SLEEP], ticks);
+        carry[PetEffects.FULLNESS] = remainder(fullnessRate, carry[PetEffects.FULLNESS], ticks);
+        carry[PetEffects.HAPPINESS] = remainder(happinessRate, carry[PetEffects.HAPPINESS], ticks);
+        pet.storeRawStats(stats[PetEffects.HEALTH], stats[PetEffects.SLEEP], stats[PetEffects.FULLNESS],
+                stats[PetEffects.HAPPINESS], states);
+        return true;
+    }
+
+    public synchronized long getLastEvaluatedMillis() {
+        return lastEvaluatedMillis;
+    }
+
+    /**
+     * Applies a number of decay ticks to a pet in one step, using the mean rates of
+     * its species. Costs the same for 1 tick or a million.
+     *
+     * @param pet   the pet to update
+     * @param ticks number of ticks to apply
+     */
+    public static void fastForward(Pet pet, long ticks) {
+        PetSpecies species = pet.getSpecies();
+        fastForward(pet, sleepRateOf(species), fullnessRateOf(species), happinessRateOf(species), ticks);
+    }
+
+    private static void fastForward(Pet pet, int sleepRate, int fullnessRate, int happinessRate, long ticks) {
+        if (ticks <= 0) {
+            return;
+        }
+
+        int[] stats = new int[PetEffects.STAT_COUNT];
+        int states = project(pet.rawHealth(), pet.rawSleep(), pet.rawFullness(), pet.rawHappiness(),
+                sleepRate, fullnessRate, happinessRate, null, ticks, stats);
+        pet.setRawStats(stats[PetEffects.HEALTH], stats[PetEffects.SLEEP], stats[PetEffects.FULLNESS],
+                stats[PetEffects.HAPPINESS], states);
+    }
+
+    /**
+     * Works out the stats of a pet after a number of decay ticks without touching
+     * the pet.
+     *
+     * @param health        health now
+     * @param sleep         sleep now
+     * @param fullness      fullness now
+     * @param happiness     happiness now
+     * @param sleepRate     sleep decay per tick in tenths of a point
+     * @param fullnessRate  fullness decay per tick in tenths of a point
+     * @param happinessRate happiness decay per tick in tenths of a point
+     * @param carry         tenths already lost beyond each stat, indexed by the
+     *                      PetEffects stat constants, or null for none
+     * @param ticks         number of ticks to apply, at least 1
+     * @param out           receives the stats, indexed by the PetEffects stat constants
+     * @return the PetState mask after the ticks
+     */
+    public static int project(int health, int sleep, int fullness, int happiness,
+            int sleepRate, int fullnessRate, int happinessRate, int[] carry, long ticks, int[] out) {
+        int sleepCarry = carry != null ? carry[PetEffects.SLEEP] : 0;
+        int fullnessCarry = carry != null ? carry[PetEffects.FULLNESS] : 0;
+        int happinessCarry = carry != null ? carry[PetEffects.HAPPINESS] : 0;
+        long firstTired = firstTickAtOrBelow(sleep, sleepRate, sleepCarry, 0);
+        long firstHungry = firstTickAtOrBelow(fullness, fullnessRate, fullnessCarry, 0);
+        long tired = ticksFrom(firstTired, ticks);
+        long hungry = ticksFrom(firstHungry, ticks);
+
+        // The first check that finds health at or below 0 kills the pet and sets every
+        // stat to 0. Health only goes down, so the pet is dead if health was gone when
+        // the last check of the last tick started.
+        long penalisedBefore = ticksFrom(firstTired, ticks - 1) + ticksFrom(firstHungry, ticks - 1);
+        long penalisedLast = tired + hungry - penalisedBefore;
+        if (health - PENALTY * (CHECKS_PER_TICK * penalisedBefore + (CHECKS_PER_TICK - 1) * penalisedLast) <= 0) {
+            out[PetEffects.HEALTH] = 0;
+            out[PetEffects.SLEEP] = 0;
+            out[PetEffects.FULLNESS] = 0;
+            out[PetEffects.HAPPINESS] = 0;
+            return PetState.DEAD.bit();
+        }
+
+        int newSleep = decayed(sleep, sleepRate, sleepCarry, ticks);
+        int newFullness = decayed(fullness, fullnessRate, fullnessCarry, ticks);
+        int newHappiness = (int) Math.max(0, happiness - decline(happinessRate, happinessCarry, ticks)
+                - CHECKS_PER_TICK * PENALTY * hungry);
+        out[PetEffects.HEALTH] = (int) Math.max(0, health - CHECKS_PER_TICK * PENALTY * (tired + hungry));
+        out[PetEffects.SLEEP] = newSleep;
+        out[PetEffects.FULLNESS] = newFullness;
+        out[PetEffects.HAPPINESS] = newHappiness;
+
+        int states = 0;
+        if (newSleep <= 0) {
+            states |= PetState.SLEEPING.bit();
+        }
+        if (newFullness <= 0) {
+            states |= PetState.HUNGRY.bit();
+        }
+        if (newHappiness <= 50) {
+            states |= PetState.ANGRY.bit();
+        }
+        return states;
+    }
+
+    /**
+     * Gets the first tick (1 based) after which a decaying stat is at or below 0.
+     *
+     * @param value the stat now
+     * @param rate  decay per tick in tenths of a point
+     * @return the tick number, or Long.MAX_VALUE if the stat never reaches 0
+     */
+    public static long firstTickAtZero(int value, int rate) {
+        return firstTickAtOrBelow(value, rate, 0);
+    }
+
+    /**
+     * Gets the first tick (1 based) after which a decaying stat is at or below a
+     * threshold.
+     *
+     * @param value     the stat now
+     * @param rate      decay per tick in tenths of a point
+     * @param threshold the threshold
+     * @return the tick number, or Long.MAX_VALUE if the stat never gets there
+     */
+    public static long firstTickAtOrBelow(int value, int rate, int threshold) {
+        return firstTickAtOrBelow(value, rate, 0, threshold);
+    }
+
+    private static long firstTickAtOrBelow(int value, int rate, int carry, int threshold) {
+        if (value <= threshold) {
+            return 1;
+        }
+        if (rate <= 0) {
+            return Long.MAX_VALUE;
+        }
+        // value - floor((carry + rate * k) / 10) <= threshold  <=>  rate * k >= 10 * (value - threshold) - carry
+        long needed = 10L * (value - threshold) - carry;
+        return Math.max(1, (needed + rate - 1) / rate);
+    }
+
+    // Number of ticks in 1..ticks at or after the first tick
+    private static long ticksFrom(long firstTick, long ticks) {
+        return firstTick > ticks ? 0 : ticks - firstTick + 1;
+    }
+
+    private static long decline(int rate, int carry, long ticks) {
+        return (carry + rate * ticks) / 10;
+    }
+
+    private static int decayed(int value, int rate, int carry, long ticks) {
+        return (int) Math.max(0, value - decline(rate, carry, ticks));
+    }
+
+    // Tenths left over after the whole points lost in the ticks
+    private static int remainder(int rate, int carry, long ticks) {
+        return (int) ((carry + rate * ticks) % 10);
+    }
+
+    // Mean decay per tick in tenths, (min + max) / 2 * 10
+    public static int sleepRateOf(PetSpecies species) {
+        return (species.getSleepMin() + species.getSleepMax()) * 5;
+    }
+
+    public static int fullnessRateOf(PetSpecies species) {
+        return (species.getFullnessMin() + species.getFullnessMax()) * 5;
+    }
+
+    public static int happinessRateOf(PetSpecies species) {
+        return (species.getHappinessMin() + species.getHappinessMax()) * 5;
+    }
+}
@@ -1,16 +1,27 @@
 package application.model;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalTime;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
+import application.util.GameScheduler;
+import application.util.SaveWriter;
+
 
 /**
  * The Parent class manages parental control items, which includes: password verification,
@@ -18,24 +29,39 @@ import com.google.gson.JsonSyntaxException;
  * Uses JSON serialization and deserialization to ensure data persistence across sessions.
  *
  * <p>
- * Synchronizes methods that modify shared data, due to very unlikley race condition between thread incrementation 
- * and saving parental control settings.
+ * The settings live in memory, the counters in atomic integers, so reading them never
+ * touches the disk. Changes are written behind: the first change schedules a write
+ * {@link #FLUSH_DELAY_MILLIS} later and every change until then goes into that same
+ * write, which replaces the file atomically through the SaveWriter. Pending changes
+ * are written when the JVM shuts down.
  * If JSON is missing or malformed it will make default JSON.
  * </p>
  *
+ * <p>
+ * The allowed hours are a {@link WeekSchedule} bitmap, so checking the time is O(1) and
+ * the next change of the answer can be computed instead of polled for.
+ * A file watcher reloads the settings when someone else edits the file. Our own
+ * writes are told apart by their checksum, so they are not read back.
+ * </p>
+ *
  * @author Ryan Wagner
  */
 public class Parent{
 
-    private String password;
+    //how long a change waits so that later changes are written with it
+    public static final long FLUSH_DELAY_MILLIS = 2000;
+
+    private volatile String password;
 
-    private List<Integer> allowedHours;
+    private volatile List<Integer> allowedHours;
 
-    private boolean enabled;
+    private volatile WeekSchedule schedule;
 
-    private int totalTimePlayed; 
+    private volatile boolean enabled;
 
-    private int numberOfLaunches; 
+    private final AtomicInteger totalTimePlayed = new AtomicInteger();
+
+    private final AtomicInteger numberOfLaunches = new AtomicInteger();
 
     //JSON file that will be used - stored at same level as build
     private static final String FILE = "parentdata.json";
@@ -43,12 +69,26 @@ public class Parent{
     //pretty printing on GSON object so you dont have to scroll when adding large amount of times (improved readability)
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+    private final Path file = Path.of(FILE).toAbsolutePath();
+
+    //true while a write is scheduled but has not taken its snapshot yet
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    //told when the settings change, e.g. to reschedule the allowed time check
+    private final ChangeListeners changeListeners = new ChangeListeners();
+
+    //checksums of the content last written or read, to ignore our own writes in the watcher
+    private final long[] knownChecksums = new long[4];
+    private int nextChecksum;
+
     /**
      * Constructor that initializes the Parent object by loading data from the JSON file.
      * (If file doesn't exist it will make default JSON)
      */
     public Parent(){
         loadParentData();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushNow, "parent-data-flush"));
+        startWatcher();
     }
 
     /**
@@ -57,19 +97,8 @@ public class Parent{
      */
     public synchronized void loadParentData(){
 
-        try(FileReader reader = new FileReader(FILE)){
-            ParentData data = GSON.fromJson(reader, ParentData.class);
-
-            this.password = data.getPassword();
-            this.allowedHours = data.getAllowedHours();
-            this.enabled = data.isEnabled();
-            this.totalTimePlayed = data.getTotalTimePlayed();
-            this.numberOfLaunches = data.getNumberOfLaunches();
-
-            //validating the essential fields except isEnabled as boolean wrapper causes errors
-            if(this.password == null || this.allowedHours == null){
-                throw new JsonSyntaxException("Missing required fields in JSON.");
-            }
+        try{
+            apply(Files.readAllBytes(file));
         }
         catch(Exception e){
             System.err.println("Error occured when loading Parent JSON: " + e.getMessage());
@@ -77,38 +106,170 @@ public class Parent{
         }
     }
 
+    //takes over the settings in the file content, throws if they are not valid
+    private synchronized void apply(byte[] content){
+        ParentData data = GSON.fromJson(new String(content, StandardCharsets.UTF_8), ParentData.class);
+
+        //validating the essential fields except isEnabled as boolean wrapper causes errors
+        if(data == null || data.getPassword() == null
+                || (data.getAllowedHours() == null && data.getAllowedWeek() == null)){
+            throw new JsonSyntaxException("Missing required fields in JSON.");
+        }
+
+        this.password = data.getPassword();
+        //the file holds one of the two, see snapshot()
+        if(data.getAllowedWeek() != null){
+            this.schedule = WeekSchedule.fromBits(data.getAllowedWeek());
+            this.allowedHours = this.schedule.hoursAllowedEveryDay();
+        }
+        else{
+            this.allowedHours = List.copyOf(data.getAllowedHours());
+            this.schedule = WeekSchedule.everyDay(this.allowedHours);
+        }
+        this.enabled = data.isEnabled();
+        this.totalTimePlayed.set(data.getTotalTimePlayed());
+        this.numberOfLaunches.set(data.getNumberOfLaunches());
+        remember(SaveWriter.checksum(content));
+        changeListeners.fire();
+    }
+
     /**
      * Sets default values and saves them to the JSON file in case of error with JSON.
      */
     public synchronized void setDefaultValues(){
         this.password = "password";
-        this.allowedHours = new ArrayList<>();
+        List<Integer> hours = new ArrayList<>();
         for(int i = 0; i < 24; i++){
-            this.allowedHours.add(i);
+            hours.add(i);
         }
+        this.allowedHours = List.copyOf(hours);
+        this.schedule = WeekSchedule.everyDay(hours);
         this.enabled = true;
-        this.totalTimePlayed = 0;
-        this.numberOfLaunches = 0;
+        this.totalTimePlayed.set(0);
+        this.numberOfLaunches.set(0);
         saveParentData();
+        changeListeners.fire();
     }
 
     /**
-     * Saves the current parent data to the JSON file using GSON object.
+     * Schedules a write of the current parent data to the JSON file. Changes made before
+     * the write happens are written with it.
      */
-    public synchronized void saveParentData(){
-        try(FileWriter writer = new FileWriter(FILE)){
-            ParentData data = new ParentData();
+    public void saveParentData(){
+        if(flushScheduled.compareAndSet(false, true)){
+            GameScheduler.shared().schedule(this::flush, FLUSH_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Writes the pending changes now and waits for the file to be replaced, used when
+     * the game shuts down.
+     */
+    public void flushNow(){
+        if(flushScheduled.get()){
+            flush();
+        }
+        SaveWriter.shared().flush(file);
+    }
+
+    //hands the write to the SaveWriter, the snapshot is taken when it writes
+    private void flush(){
+        flushScheduled.set(false); //changes from now on need another write
+        SaveWriter.shared().saveLazily(file, () -> {
+            byte[] content = GSON.toJson(snapshot()).getBytes(StandardCharsets.UTF_8);
+            remember(SaveWriter.checksum(content)); //before the file changes, for the watcher
+            return content;
+        });
+    }
+
+    private synchronized ParentData snapshot(){
+        ParentData data = new ParentData();
 
-            data.setPassword(this.password);
+        data.setPassword(this.password);
+        //only one source of the allowed time in the file: the hour list while every
+        //day is the same, so editing it by hand keeps working, the week bitmap
+        //(without the list) once days differ
+        if(this.schedule.equals(WeekSchedule.everyDay(this.allowedHours))){
             data.setAllowedHours(this.allowedHours);
-            data.setEnabled(this.enabled);
-            data.setTotalTimePlayed(this.totalTimePlayed);
-            data.setNumberOfLaunches(this.numberOfLaunches);
+        }
+        else{
+            data.setAllowedWeek(this.schedule.toBits());
+        }
+        data.setEnabled(this.enabled);
+        data.setTotalTimePlayed(this.totalTimePlayed.get());
+        data.setNumberOfLaunches(this.numberOfLaunches.get());
+        return data;
+    }
 
-            GSON.toJson(data, writer);
-            
-        }catch(Exception e){
-            System.err.println("Error occured when trying to save data to parent JSON: " + e.getMessage());
+    //watches the folder of the file for edits made outside the game
+    private void startWatcher(){
+        Path folder = file.getParent();
+        WatchService watcher;
+        try{
+            watcher = folder.getFileSystem().newWatchService();
+            folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }catch(IOException | UnsupportedOperationException e){
+            System.err.println("Parent JSON will not be watched for edits: " + e.getMessage());
+            return;
+        }
+
+        Thread thread = new Thread(() -> watch(watcher), "parent-data-watcher");
+        thread.setDaemon(true); // allows the thread to exit when the application closes
+        thread.start();
+    }
+
+    private void watch(WatchService watcher){
+        try{
+            while(true){
+                WatchKey key = watcher.take();
+                boolean touched = false;
+                for(WatchEvent<?> event : key.pollEvents()){
+                    touched |= file.getFileName().equals(event.context());
+                }
+                if(touched){
+                    reloadIfChangedElsewhere();
+                }
+                if(!key.reset()){
+                    return; //folder is gone
+                }
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void remember(long checksum){
+        knownChecksums[nextChecksum] = checksum;
+        nextChecksum = (nextChecksum + 1) % knownChecksums.length;
+    }
+
+    private synchronized boolean isKnown(long checksum){
+        for(long known : knownChecksums){
+            if(known == checksum){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //reloads only if the content is not something we recently wrote or read
+    private void reloadIfChangedElsewhere(){
+        byte[] content;
+        try{
+            content = Files.readAllBytes(file);
+        }catch(IOException e){
+            return; //deleted or being replaced, the next event brings the new file
+        }
+        if(content.length == 0 || isKnown(SaveWriter.checksum(content))){
+            return; //our own write, or an editor that truncated the file and will write it next
+        }
+
+        try{
+            apply(content);
+            System.out.println("Parent JSON was edited, reloaded it");
+        }catch(RuntimeException e){
+            //keep the current settings, a half written edit is followed by another event
+            System.err.println("Ignoring edit of Parent JSON that cannot be read: " + e.getMessage());
         }
     }
 
@@ -127,15 +288,38 @@ public class Parent{
      *
      * @param allowedHours The list of allowed hours (0-23).
      */
-    public void setAllowedHours(List<Integer> allowedHours){
-        this.allowedHours = allowedHours;
+    public synchronized void setAllowedHours(List<Integer> allowedHours){
+        this.allowedHours = List.copyOf(allowedHours);
+        this.schedule = WeekSchedule.everyDay(this.allowedHours); //same hours on every day
         saveParentData();
+        changeListeners.fire();
+    }
+
+    /**
+     * Sets the allowed hours of each day of the week and saves the updated settings.
+     *
+     * @param schedule The allowed hours of the week.
+     */
+    public synchronized void setWeekSchedule(WeekSchedule schedule){
+        this.schedule = schedule;
+        this.allowedHours = schedule.hoursAllowedEveryDay();
+        saveParentData();
+        changeListeners.fire();
+    }
+
+    /**
+     * Retrieves the allowed hours of each day of the week.
+     *
+     * @return The allowed hours of the week.
+     */
+    public WeekSchedule getWeekSchedule(){
+        return this.schedule;
     }
 
     /**
      * Retrieves the allowed hours for gameplay.
      *
-     * @return The list of allowed hours (0-23).
+     * @return The list of allowed hours (0-23), read only.
      */
     public List<Integer> getAllowedHours(){
         return this.allowedHours;
@@ -149,6 +333,7 @@ public class Parent{
     public void setEnabled(boolean enabled){
         this.enabled = enabled;
         saveParentData();
+        changeListeners.fire();
     }
 
     /**
@@ -169,29 +354,55 @@ public class Parent{
         if (!this.enabled) {
             return true; //If parental controls are disabled, always allow
         }
-        LocalTime currentTime = LocalTime.now();
-        int currentHour = currentTime.getHour();
+        return this.schedule.isAllowed(GameScheduler.shared().getClock().localDateTime());
+    }
 
-        return this.allowedHours.contains(currentHour);
+    /**
+     * Finds when isWithinAllowedTime() next changes its answer.
+     *
+     * @return the time of the change in clock milliseconds, or -1 if it never changes
+     */
+    public long nextAllowedTimeChangeMillis(){
+        if (!this.enabled) {
+            return -1;
+        }
+        LocalDateTime next = this.schedule.nextTransition(GameScheduler.shared().getClock().localDateTime());
+        return next == null ? -1 : next.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Adds a listener told whenever the settings change, here or in the file.
+     *
+     * @param listener the listener, called on the thread that made the change
+     */
+    public void addChangeListener(Runnable listener){
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addChangeListener().
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(Runnable listener){
+        changeListeners.remove(listener);
     }
 
 
     /**
-     * Increments the number of launches via loading and saving to JSON.
+     * Increments the number of launches, written behind.
      */
-    public synchronized void incrementNumberOfLaunches(){
-        loadParentData(); 
-        this.numberOfLaunches++;
+    public void incrementNumberOfLaunches(){
+        this.numberOfLaunches.incrementAndGet();
         saveParentData(); 
     }
 
 
     /**
-     * Increments the total time played via loading and saving to JSON.
+     * Increments the total time played, written behind.
      */
-    public synchronized void incrementTotalTimePlayed(){
-        loadParentData(); 
-        this.totalTimePlayed++;
+    public void incrementTotalTimePlayed(){
+        this.totalTimePlayed.incrementAndGet();
         saveParentData(); 
     }
 
@@ -201,10 +412,8 @@ public class Parent{
      *
      * @return The number of launches.
      */
-    public synchronized int getNumberOfLaunches(){
-        //makes sure to have latest value
-        loadParentData(); 
-        return this.numberOfLaunches;
+    public int getNumberOfLaunches(){
+        return this.numberOfLaunches.get();
     }
 
 
@@ -213,10 +422,8 @@ public class Parent{
      *
      * @return The total time played.
      */
-    public synchronized int getTotalTimePlayed(){
-        //makes sure to have latest value
-        loadParentData(); 
-        return this.totalTimePlayed;
+    public int getTotalTimePlayed(){
+        return this.totalTimePlayed.get();
     }
 
     /**
@@ -225,10 +432,10 @@ public class Parent{
     public synchronized void resetStats(){
         
         //num of launches changed to 1 not 0 as must be reset while running
-        this.numberOfLaunches = 1;
-        this.totalTimePlayed = 0;
+        this.numberOfLaunches.set(1);
+        this.totalTimePlayed.set(0);
         saveParentData();
     }
 
 
-}
\ No newline at end of file
+}
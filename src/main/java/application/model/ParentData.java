@@ -19,7 +19,7 @@ public class ParentData{
 
     private String password; //the password as a string
 
-    private List<Integer> allowedHours; //list of hrs from 0 to 23
+    private List<Integer> allowedHours; //list of hrs from 0 to 23, missing when allowedWeek is there
 
     private boolean enabled; //stores whether the parental control screen is enabled
 
@@ -27,6 +27,8 @@ public class ParentData{
 
     private int numberOfLaunches; //stores number of times the application is launched (closer to an intermediary)
 
+    private long[] allowedWeek; //allowed hours of the whole week as a bitmap (see WeekSchedule), only there when the days differ
+
 
     /**
      * Gets the password required for parental control access.
@@ -122,4 +124,22 @@ public class ParentData{
     public void setNumberOfLaunches(int numberOfLaunches){
         this.numberOfLaunches = numberOfLaunches;
     }
+
+    /**
+     * Gets the allowed hours of the week as a bitmap.
+     *
+     * @return the three words of a WeekSchedule, or null in files from before weekly schedules
+     */
+    public long[] getAllowedWeek(){
+        return allowedWeek;
+    }
+
+    /**
+     * Sets the allowed hours of the week as a bitmap.
+     *
+     * @param allowedWeek the three words of a WeekSchedule
+     */
+    public void setAllowedWeek(long[] allowedWeek){
+        this.allowedWeek = allowedWeek;
+    }
 }
@@ -17,15 +17,7 @@ public class Patch extends Pet {
     }
 
     @Override
-    public void adjustStats() {
-        this.setSleep(this.getSleep() - 5);
-        this.setFullness(this.getFullness() - 1);
-        this.setHappiness(this.getHappiness() - 3);
-
-        this.setSleep(Math.max(this.getSleep(), 0));
-        this.setFullness(Math.max(this.getFullness(), 0));
-        this.setHappiness(Math.max(this.getHappiness(), 0));
-
-        this.checkAndAddState();
+    public PetSpecies getSpecies() {
+        return PetSpecies.PATCH;
     }
 }
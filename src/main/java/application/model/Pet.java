@@ -1,19 +1,31 @@
 package application.model;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Arrays;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import application.util.GameScheduler;
+
 public class Pet {
     private String name;
-    private List<String> currentPetStates; // Changed from String to List because its possible for the pet to be in
-                                           // multiple states at once
+    @JsonAdapter(PetStateAdapter.class) // saved as a list of state names, see PetStateAdapter
+    private int currentPetStates; // Bitmask of PetState bits because its possible for the pet to be in
+                                  // multiple states at once
     private int health;
     private int sleep;
     private int fullness;
     private int happiness;
     private int petType; // 1 for pet1, 2 for pet2, etc.
+    private transient SleepRecovery sleepRecovery; // not saved, running "go to bed" recovery
+    private transient volatile LazyDecay lazyDecay; // not saved, null unless the pet decays lazily
+    private transient RandomGenerator random; // not saved, null to use the thread's own generator
+    private transient volatile ChangeListeners changeListeners; // not saved, null until someone listens
+    private transient PetActor actor; // not saved, the single writer of the pet once one is created
 
     public Pet(String pet_name, int pet_health, int pet_sleep, int pet_fullness, int pet_happiness,
             List<String> currentPetState, int petType) {
@@ -22,152 +34,168 @@ public class Pet {
         this.sleep = pet_sleep;
         this.fullness = pet_fullness;
         this.happiness = pet_happiness;
-        this.currentPetStates = currentPetState != null ? currentPetState : new ArrayList<>();
+        this.currentPetStates = PetState.maskOf(currentPetState);
         this.petType = petType;
     }
 
     /*
-     * Allows player to interact with pet
+     * Allows player to interact with pet, string version of interact() kept for
+     * existing callers
      * 
-     * @param action: the actual action that you want to use, options are in
-     * allowedInteractions (line 33)
+     * @param action: the actual action that you want to use, options are the names
+     * in PetAction
      * 
-     * @param item: item you want to gift/feed the pet, allowed options are in
-     * allowedFood/Gifts (line 34,35)
+     * @param item: item you want to gift/feed the pet, allowed options are the
+     * labels in ItemType
      * PASS EMPTY STRING IF YOU ARE NOT CALLING FEED OR GIFT
      * 
      * @param inv: needed to pass the inventory that is being used by the game in
      * order to access items in it
      */
     public void interactPet(String action, String item, Inventory inv) {
-        List<String> allowedInteractions = Arrays.asList("go to bed", "feed", "give gift", "take to the vet",
-                "exercise");
-        List<String> allowedFood = Arrays.asList("fruit", "meat", "vegetable");
-        List<String> allowedGifts = Arrays.asList("toy", "play place", "ball");
+        PetAction petAction = PetAction.fromName(action);
+        if (petAction == null) {
+            System.out.println("ERROR: input is not one of the supported interactions: "
+                    + Arrays.toString(PetAction.values()));
+            return;
+        }
 
-        switch (action) {
+        ItemType itemType = null;
+        if (petAction.getItemCategory() != null) {
+            itemType = ItemType.fromLabel(item);
+            if (itemType == null || itemType.getCategory() != petAction.getItemCategory()) {
+                System.out.println("ERROR: item is not one of the supported "
+                        + petAction.getItemCategory().name().toLowerCase() + " types");
+                return;
+            }
+        }
 
-            case "go to bed":
+        if (!this.canDo(petAction)) {
+            System.out.println("Error: " + this.name + " cannot " + action + " now");
+            return;
+        }
+        if (!this.interact(petAction, itemType, inv)) {
+            System.out.println("Error: could not " + action + " " + this.name + ", no " + item + " left");
+        }
+    }
+
+    /*
+     * Allows player to interact with pet, each call is a few lookups in the
+     * PetEffects table and does not allocate
+     *
+     * @param action: the action to perform
+     *
+     * @param item: item used by FEED / GIVE_GIFT, ignored (can be null) otherwise
+     *
+     * @param inv: inventory the item is taken from, can be null if no item is used
+     *
+     * @return true if the interaction happened, false if the pet cannot do it
+     * now (see canDo) or the item was wrong or not in the inventory
+     */
+    public boolean interact(PetAction action, ItemType item, Inventory inv) {
+        this.evaluateDecay();
+        if (!this.canDo(action)) {
+            return false;
+        }
+        switch (action) {
+            case GO_TO_BED:
                 this.caseGoToBed();
-                break;
-
-            case "feed":
-                try {
-                    if (!allowedFood.contains(item)) {
-                        System.out.println("ERROR: item is not one of the supported food types");
-                        break;
-                    }
-
-                    inv.useItem(item, 1); // Try to consume 1 unit of the item
-                    this.caseFeed(item); // Line 121
-                    this.checkAndAddState(); // checking if states need to be updated
-                } catch (Exception e) {
-                    System.out.println("Error feeding pet: " + e.getMessage());
+                return true;
+
+            case FEED:
+            case GIVE_GIFT:
+                if (item == null || item.getCategory() != action.getItemCategory()) {
+                    return false;
                 }
-                break;
-
-            case "give gift":
-                try {
-                    if (!allowedGifts.contains(item)) {
-                        System.out.println("ERROR: item is not one of the supported gift types");
-                        break;
-                    }
-
-                    inv.useItem(item, 1); // Try to consume 1 unit of the item
-                    this.caseGift(item); // Line 126
-                    this.checkAndAddState(); // checking if states need to be updated
-                } catch (Exception e) {
-                    System.out.println("Error gifting pet: " + e.getMessage());
+                if (inv == null || !inv.useItem(item, 1)) { // Try to consume 1 unit of the item
+                    return false;
                 }
-                break;
-
-            case "take to the vet":
-                this.health = Math.min(this.health + 15, 100); // Should go on cooldown after using
-                break;
-
-            case "play":
-                this.happiness = Math.min(this.happiness + 15, 100);
-                break;
-
-            case "exercise":
-                this.health = Math.min(this.health + 5, 100);
-                this.sleep = Math.max(this.sleep - 5, 0);
-                this.fullness = Math.max(this.fullness - 5, 0);
-                break;
+                this.applyEffect(PetEffects.rowOf(item));
+                this.checkAndAddState(); // checking if states need to be updated
+                return true;
 
             default:
-                System.out.println("ERROR: input is not one of the supported interactions: " + allowedInteractions);
+                this.applyEffect(PetEffects.rowOf(action)); // cooldowns are checked by the caller, see CooldownManager
+                this.fireChanged();
+                return true;
         }
-
     }
 
-    private void caseGoToBed() {
-        while (this.sleep < 100) {
-            try {
-                // Wait for 2 seconds
-                Thread.sleep(1000);
-
-                // Increase sleep by 5
-                this.sleep = Math.min(this.sleep + 25, 100); // Ensures sleep doesn't exceed 100
-
-                // Print the current sleep value for debugging
-                System.out.println("Sleep is now: " + this.sleep);
-            } catch (InterruptedException e) {
-                System.out.println("Sleep interrupted: " + e.getMessage());
-                break; // Exit the loop if interrupted
-            }
+    /*
+     * Checks whether the pet can do an action now: a dead pet does nothing and a
+     * sleeping pet can only be put to bed
+     *
+     * @param action: the action
+     *
+     * @return true if the action would have an effect
+     */
+    public boolean canDo(PetAction action) {
+        if (this.isDead()) {
+            return false;
         }
+        return action == PetAction.GO_TO_BED || !this.isSleeping();
+    }
 
-        this.removePetState("sleeping");
+    // Adds one row of the PetEffects table to the stats, keeping them between 0 and 100
+    private void applyEffect(int row) {
+        this.health = clampStat(this.health + PetEffects.delta(row, PetEffects.HEALTH));
+        this.sleep = clampStat(this.sleep + PetEffects.delta(row, PetEffects.SLEEP));
+        this.fullness = clampStat(this.fullness + PetEffects.delta(row, PetEffects.FULLNESS));
+        this.happiness = clampStat(this.happiness + PetEffects.delta(row, PetEffects.HAPPINESS));
     }
 
-    private void caseFeed(String foodItem) {
-        switch (foodItem) {
-            case "vegetable":
-                this.fullness = Math.min(this.fullness + 5, 100); // Adjust fullness
-                break;
-            case "fruit":
-                this.fullness = Math.min(this.fullness + 10, 100); // Adjust fullness
-                break;
-            case "meat":
-                this.fullness = Math.min(this.fullness + 15, 100); // Adjust fullness
-                break;
-            default:
-                System.out.println("ERROR: something happened during execution of 'feed' switch block");
+    private static int clampStat(int value) {
+        return Math.max(0, Math.min(value, 100));
+    }
+
+    private void caseGoToBed() {
+        this.goToBed(null);
+    }
+
+    /*
+     * Puts the pet to bed. Sleep recovers over time on the shared GameScheduler,
+     * so this returns right away instead of blocking the calling thread
+     *
+     * @param listener: receives the recovery progress, can be null
+     *
+     * @return the running recovery, which can be cancelled
+     */
+    public synchronized SleepRecovery goToBed(SleepRecovery.Listener listener) {
+        if (this.sleepRecovery != null && this.sleepRecovery.isRunning()) {
+            return this.sleepRecovery; // Already in bed
         }
 
-        System.out.println("Fed " + this.name + " with " + foodItem);
+        // With an actor the recovery steps are sent to its mailbox like any other change
+        Executor stepExecutor = this.actor != null ? this.actor.getMailbox() : Runnable::run;
+        this.sleepRecovery = new SleepRecovery(this, GameScheduler.shared(), stepExecutor, listener);
+        this.sleepRecovery.start();
+        return this.sleepRecovery;
     }
 
-    private void caseGift(String giftItem) {
-        switch (giftItem) {
-            case "toy":
-                this.happiness = Math.min(this.happiness + 5, 100); // Adjust happiness
-                break;
-            case "ball":
-                this.happiness = Math.min(this.happiness + 10, 100); // Adjust happiness
-                break;
-            case "play place":
-                this.happiness = Math.min(this.happiness + 15, 100); // Adjust happiness
-                break;
-            default:
-                System.out.println("ERROR: something happened during execution of 'gift' switch block");
+    // Wakes the pet up early, keeps the sleep gained so far
+    public synchronized void cancelSleepRecovery() {
+        if (this.sleepRecovery != null) {
+            this.sleepRecovery.cancel();
+            this.sleepRecovery = null;
         }
+    }
 
-        System.out.println("Gifted " + this.name + " with " + giftItem);
+    public synchronized boolean isRecoveringSleep() {
+        return this.sleepRecovery != null && this.sleepRecovery.isRunning();
     }
 
-    // Changes sleep, fullness, happiness stats of pet by a random number from 0 to
-    // 5
+    // Changes sleep, fullness, happiness stats of pet by the decay rules of its
+    // species (a random number from 0 to 5 for a plain Pet)
     public void adjustStats() {
-        Random random = new Random(); // Created so that its possible to call nextInt() below.
-        final int UPPER_BOUND = 6; // Upper bound of the random number generation
+        this.evaluateDecay();
+        RandomGenerator random = this.getRandom(); // Used to roll the decay below.
+        PetSpecies species = this.getSpecies();
 
-        // Gets random integer from 0 to 5 and then subtracts that number from the
+        // Rolls the decay for each stat and then subtracts that number from the
         // appropriate value
-        this.sleep = this.sleep - random.nextInt(UPPER_BOUND);
-        this.fullness = this.fullness - random.nextInt(UPPER_BOUND);
-        this.happiness = this.happiness - random.nextInt(UPPER_BOUND);
+        this.sleep = this.sleep - species.rollSleepDecay(random);
+        this.fullness = this.fullness - species.rollFullnessDecay(random);
+        this.happiness = this.happiness - species.rollHappinessDecay(random);
 
         this.sleep = Math.max(this.sleep, 0);
         this.fullness = Math.max(this.fullness, 0);
@@ -176,34 +204,79 @@ public class Pet {
         this.checkAndAddState();
     }
 
+    // Random numbers for the decay rolls. Defaults to the generator of the current
+    // thread, which needs no allocation or locking per tick.
+    private RandomGenerator getRandom() {
+        RandomGenerator generator = this.random;
+        return generator != null ? generator : ThreadLocalRandom.current();
+    }
+
+    // Plugs in the generator used for the decay rolls, null goes back to the default
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // Gives the pet its own seeded stream, the same seed rolls the same decay every
+    // run (replays, reproducing bug reports and benchmarks)
+    public void setDecaySeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Decay rules used by adjustStats(), subclasses return their own species
+    public PetSpecies getSpecies() {
+        return PetSpecies.DEFAULT;
+    }
+
     public void checkAndAddState() {
-        // Clears existing states that depend on stats
-        this.clearPetStates();
+        this.evaluateDecay();
+        // Recomputes the states that depend on stats, without touching the list API
+        boolean wasDead = PetState.DEAD.isIn(this.currentPetStates);
+        int states = 0;
 
         // Checks each stat and update states
         if (this.health <= 0) {
-            this.addPetState("dead");
+            this.currentPetStates = PetState.DEAD.bit();
             this.sleep = 0;
             this.fullness = 0;
             this.happiness = 0;
 
-            System.out.println("Pet has died. All stats set to 0.");
+            if (!wasDead) {
+                System.out.println("Pet has died. All stats set to 0.");
+            }
+            this.fireChanged();
             return;
         } else {
             if (this.sleep <= 0) {
-                this.addPetState("sleeping");
+                states |= PetState.SLEEPING.bit();
                 applyHealthPenalty();
                 // return;
             }
             if (this.fullness <= 0) {
-                this.addPetState("hungry");
+                states |= PetState.HUNGRY.bit();
                 applyHappinessPenalty();
                 applyHealthPenalty();
             }
             if (this.happiness <= 50) {
-                this.addPetState("angry");
+                states |= PetState.ANGRY.bit();
             }
         }
+
+        this.currentPetStates = states;
+        this.fireChanged();
+    }
+
+    /*
+     * Brings the pet back with every stat full and no states (dead, hungry, ...),
+     * used by the parental revive
+     */
+    public void revive() {
+        this.evaluateDecay();
+        this.health = 100;
+        this.sleep = 100;
+        this.fullness = 100;
+        this.happiness = 100;
+        this.currentPetStates = 0;
+        this.fireChanged();
     }
 
     // Apply penalties
@@ -236,17 +309,18 @@ public class Pet {
      * }
      */
     public String getMainPetState() {
+        int[] stats = this.currentStats();
         // Check the states based on stats
-        if (this.health <= 0) {
+        if (stats[PetEffects.HEALTH] <= 0) {
             return "dead";
         }
-        if (this.sleep <= 0) {
+        if (stats[PetEffects.SLEEP] <= 0) {
             return "sleeping";
         }
-        if (this.fullness <= 0) {
+        if (stats[PetEffects.FULLNESS] <= 0) {
             return "hungry";
         }
-        if (this.happiness <= 50) {
+        if (stats[PetEffects.HAPPINESS] <= 50) {
             return "angry";
         }
 
@@ -257,7 +331,9 @@ public class Pet {
     // CAN PROBABLY REMOVE THIS METHOD IN FAVOUR OF CALLING: if getMainPetState() !=
     // "normal", then throw some warning
     public boolean warning() {
-        if (this.sleep < 25 || this.fullness < 25 || this.happiness < 25 || this.health < 25) {
+        int[] stats = this.currentStats();
+        if (stats[PetEffects.SLEEP] < 25 || stats[PetEffects.FULLNESS] < 25 || stats[PetEffects.HAPPINESS] < 25
+                || stats[PetEffects.HEALTH] < 25) {
             return true;
         }
 
@@ -265,93 +341,110 @@ public class Pet {
     }
 
     // METHODS RELATING TO STATES
-    // Helper function to check if the pet is in the current 'state'. True if it is,
+    // Helper function to check if the pet is in the given state. True if it is,
     // False if not.
-    private boolean getPetState(String state) { // HELPER METHOD, CHANGED FROM UML CLASS DIAGRAM, CHANGED NAME
-
-        if (state.equals("normal") && this.currentPetStates.isEmpty()) {
-            return true; // currentPetStates contains no negative states so the pet must be normal
-        }
-
-        for (String i : currentPetStates) {
-            if (i.equals(state)) {
-                return true; // currentPetStates contains the given state
-            }
-        }
-
-        return false;
+    public boolean hasPetState(PetState state) {
+        return state.isIn(this.getPetStateMask());
     }
 
     public void addPetState(String state) { // CHANGED RETURN TYPE TO BOOLEAN, CHANGED NAME
-        List<String> allowedStates = Arrays.asList("dead", "sleeping", "angry", "hungry");
+        PetState petState = PetState.fromName(state);
 
         // Checks if input is a valid state
-        if (!allowedStates.contains(state)) {
-            System.out.println("ERROR: '" + state + "' is not one of the allowed states -> " + allowedStates);
+        if (petState == null) {
+            System.out.println("ERROR: '" + state + "' is not one of the allowed states -> "
+                    + Arrays.toString(PetState.values()));
             return;
         }
 
+        addPetState(petState);
+    }
+
+    public void addPetState(PetState state) {
+        this.evaluateDecay();
         // Checks if state is already in the currentPetStates
-        if (this.currentPetStates.contains(state)) {
-            System.out.println("ERROR: Failed to ADD state since the pet is already in the state '" + state + "'");
+        if (state.isIn(this.currentPetStates)) {
+            System.out.println("ERROR: Failed to ADD state since the pet is already in the state '"
+                    + state.getName() + "'");
             return;
         }
 
         // Add the state to currentPetStates
-        this.currentPetStates.add(state);
-        System.out.println("State '" + state + "' added successfully.");
+        this.currentPetStates |= state.bit();
+        System.out.println("State '" + state.getName() + "' added successfully.");
+        this.fireChanged();
     }
 
     public void removePetState(String state) { // CHANGED RETURN TYPE, CHANGED NAME
-        if (!this.currentPetStates.contains(state)) { // If pet is not in the state
+        PetState petState = PetState.fromName(state);
+        if (petState == null) {
             System.out.println("ERROR: Failed to REMOVE state since the pet is not in the state '" + state + "'");
             return;
         }
 
-        this.currentPetStates.remove(state);
-        System.out.println("State '" + state + "' removed succesffully");
+        removePetState(petState);
     }
 
-    public void clearPetStates() {
-        if (currentPetStates == null) {
-            currentPetStates = new ArrayList<>(); // Reinitialize if null
-            System.err.println("Warning: currentPetStates was null. Reinitializing.");
+    public void removePetState(PetState state) {
+        this.evaluateDecay();
+        if (!state.isIn(this.currentPetStates)) { // If pet is not in the state
+            System.out.println("ERROR: Failed to REMOVE state since the pet is not in the state '"
+                    + state.getName() + "'");
             return;
         }
 
-        if (currentPetStates.isEmpty()) {
+        this.currentPetStates &= ~state.bit();
+        System.out.println("State '" + state.getName() + "' removed succesffully");
+        this.fireChanged();
+    }
+
+    public void clearPetStates() {
+        this.evaluateDecay();
+        if (currentPetStates == 0) {
             System.out.println("ERROR: Pet is not in any states");
             return;
         }
 
-        currentPetStates.clear();
+        currentPetStates = 0;
         System.out.println("All pet states have been cleared.");
+        this.fireChanged();
     }
 
+    // Builds a new list of state names, use getPetStateMask() on hot paths
     public List<String> getGetAllPetStates() {
-        return this.currentPetStates;
+        return PetState.namesOf(this.getPetStateMask());
+    }
+
+    public int getPetStateMask() {
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.states : this.currentPetStates;
+    }
+
+    void setPetStateMask(int mask) {
+        this.currentPetStates = mask;
+        this.fireChanged();
     }
     // ------
 
     // MASSIVE BLOCK TO CHECK STATES
     public boolean isDead() {
-        return this.getPetState("dead");
+        return this.hasPetState(PetState.DEAD);
     }
 
     public boolean isSleeping() {
-        return this.getPetState("sleeping");
+        return this.hasPetState(PetState.SLEEPING);
     }
 
     public boolean isAngry() {
-        return this.getPetState("angry");
+        return this.hasPetState(PetState.ANGRY);
     }
 
     public boolean isHungry() {
-        return this.getPetState("hungry");
+        return this.hasPetState(PetState.HUNGRY);
     }
 
     public boolean isNormal() {
-        return this.getPetState("normal");
+        return this.getPetStateMask() == 0;
     }
     // ------
 
@@ -362,46 +455,204 @@ public class Pet {
 
     public void setName(String name) {
         this.name = name;
+        this.fireChanged();
     }
     // ------
 
     // HEALTH
     public int getHealth() {
-        return this.health;
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.stats[PetEffects.HEALTH] : this.health;
     }
 
     public void setHealth(int health) {
+        this.evaluateDecay();
         this.health = health;
+        this.fireChanged();
     }
     // ------
 
     // SLEEP
     public int getSleep() {
-        return this.sleep;
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.stats[PetEffects.SLEEP] : this.sleep;
     }
 
     public void setSleep(int sleep) {
+        this.evaluateDecay();
         this.sleep = sleep;
+        this.fireChanged();
     }
     // -------
 
     // FULLNESS
     public int getFullness() {
-        return this.fullness;
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.stats[PetEffects.FULLNESS] : this.fullness;
     }
 
     public void setFullness(int fullness) {
+        this.evaluateDecay();
         this.fullness = fullness;
+        this.fireChanged();
     }
     // ------
 
     // HAPPINESS
     public int getHappiness() {
-        return this.happiness;
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.stats[PetEffects.HAPPINESS] : this.happiness;
     }
 
     public void setHappiness(int happiness) {
+        this.evaluateDecay();
         this.happiness = happiness;
+        this.fireChanged();
+    }
+
+    // LAZY DECAY
+    // Switches the pet to lazy decay: stats are no longer changed by adjustStats()
+    // ticks but worked out from the elapsed time whenever they are read. Reading
+    // never changes the pet, the decay is only written into the stats right before
+    // a change, from the pet's actor.
+    public void enableLazyDecay() {
+        if (this.lazyDecay == null) {
+            this.lazyDecay = new LazyDecay(this.getSpecies(), GameScheduler.shared().millis());
+        }
+    }
+
+    // Applies the decay owed so far and goes back to tick based decay
+    public void disableLazyDecay() {
+        this.evaluateDecay();
+        this.lazyDecay = null;
+    }
+
+    public boolean isLazyDecay() {
+        return this.lazyDecay != null;
+    }
+
+    // Applies the decay owed so far and returns the time the stats are now valid at,
+    // used to stamp saves
+    public long settleDecay(long nowMillis) {
+        LazyDecay decay = this.lazyDecay;
+        if (decay == null) {
+            return nowMillis;
+        }
+        if (decay.evaluate(this, nowMillis)) {
+            this.fireChanged();
+        }
+        return decay.getLastEvaluatedMillis();
+    }
+
+    // Reads the pet at a time without changing it: the stats, the tenths each stat
+    // lost beyond its value (0 on the decay timer) and the time they are valid at
+    void read(long nowMillis, LazyDecay.View view) {
+        LazyDecay decay = this.lazyDecay;
+        if (decay != null) {
+            decay.read(this, nowMillis, view);
+            return;
+        }
+        view.stats[PetEffects.HEALTH] = this.health;
+        view.stats[PetEffects.SLEEP] = this.sleep;
+        view.stats[PetEffects.FULLNESS] = this.fullness;
+        view.stats[PetEffects.HAPPINESS] = this.happiness;
+        Arrays.fill(view.carry, 0);
+        view.states = this.currentPetStates;
+        view.validAtMillis = nowMillis;
+    }
+
+    // The pet as it is now under lazy decay, null on the decay timer where the
+    // fields are current
+    private LazyDecay.View currentView() {
+        LazyDecay decay = this.lazyDecay;
+        if (decay == null) {
+            return null;
+        }
+        LazyDecay.View view = new LazyDecay.View();
+        decay.read(this, GameScheduler.shared().millis(), view);
+        return view;
+    }
+
+    private int[] currentStats() {
+        LazyDecay.View view = this.currentView();
+        return view != null ? view.stats
+                : new int[] { this.health, this.sleep, this.fullness, this.happiness };
+    }
+
+    // Writes the decay owed so far into the stats, call first in every change
+    private void evaluateDecay() {
+        LazyDecay decay = this.lazyDecay;
+        if (decay != null && decay.evaluate(this, GameScheduler.shared().millis())) {
+            this.fireChanged();
+        }
+    }
+
+    // Raw access for LazyDecay, bypasses the evaluation done by the getters/setters
+    int rawHealth() {
+        return this.health;
+    }
+
+    int rawSleep() {
+        return this.sleep;
+    }
+
+    int rawFullness() {
+        return this.fullness;
+    }
+
+    int rawHappiness() {
+        return this.happiness;
+    }
+
+    int rawStates() {
+        return this.currentPetStates;
+    }
+
+    // Like setRawStats() without telling the listeners, the caller does once it is done
+    void storeRawStats(int health, int sleep, int fullness, int happiness, int states) {
+        this.health = health;
+        this.sleep = sleep;
+        this.fullness = fullness;
+        this.happiness = happiness;
+        this.currentPetStates = states;
+    }
+
+    void setRawStats(int health, int sleep, int fullness, int happiness, int states) {
+        this.storeRawStats(health, sleep, fullness, happiness, states);
+        this.fireChanged();
+    }
+    // ------
+
+    // CHANGE EVENTS
+    // Runs the listener every time the pet's stats, states or name change, on the
+    // thread that changed them
+    public synchronized void addChangeListener(Runnable listener) {
+        if (this.changeListeners == null) {
+            this.changeListeners = new ChangeListeners();
+        }
+        this.changeListeners.add(listener);
+    }
+
+    public synchronized void removeChangeListener(Runnable listener) {
+        if (this.changeListeners != null) {
+            this.changeListeners.remove(listener);
+        }
+    }
+
+    private void fireChanged() {
+        ChangeListeners listeners = this.changeListeners;
+        if (listeners != null) {
+            listeners.fire();
+        }
+    }
+
+    // Only used by PetActor.of(), which holds the pet's lock
+    PetActor getActor() {
+        return this.actor;
+    }
+
+    void setActor(PetActor actor) {
+        this.actor = actor;
     }
 
     public int getPetType() {
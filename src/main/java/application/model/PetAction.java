@@ -0,0 +1,86 @@
+package application.model;
+
+/**
+ * This enum lists the interactions a player can do with their pet.
+ * Actions that need an item from the inventory know which item category they take,
+ * and actions that can only be done once in a while know their cooldown, which is
+ * enforced by the {@link CooldownManager}.
+ *
+ * @author CS2212 Group 31
+ */
+public enum PetAction {
+
+    // The ordinal is the action's code in binary saves, only ever append
+    GO_TO_BED("go to bed", null, 0),
+    FEED("feed", ItemType.Category.FOOD, 0),
+    GIVE_GIFT("give gift", ItemType.Category.GIFT, 0),
+    TAKE_TO_VET("take to the vet", null, 10000),
+    PLAY("play", null, 10000),
+    EXERCISE("exercise", null, 0);
+
+    private final String name;
+    private final ItemType.Category itemCategory;
+    private final long cooldownMillis;
+
+    PetAction(String name, ItemType.Category itemCategory, long cooldownMillis) {
+        this.name = name;
+        this.itemCategory = itemCategory;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * Accessor method to get the name used by the string interaction API
+     *
+     * @return name (String)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Accessor method to get the category of item the action uses
+     *
+     * @return itemCategory (ItemType.Category), null if the action takes no item
+     */
+    public ItemType.Category getItemCategory() {
+        return itemCategory;
+    }
+
+    /**
+     * Accessor method to get how long the action cannot be done again after it was
+     * done
+     *
+     * @return cooldownMillis (long), 0 if the action has no cooldown
+     */
+    public long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    /**
+     * Looks up an action by its name without allocating.
+     *
+     * @param name the action name, such as "feed" or "take to the vet"
+     * @return the matching action, or null if the name is not an action
+     */
+    public static PetAction fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "go to bed":
+                return GO_TO_BED;
+            case "feed":
+                return FEED;
+            case "give gift":
+                return GIVE_GIFT;
+            case "take to the vet":
+                return TAKE_TO_VET;
+            case "play":
+                return PLAY;
+            case "exercise":
+                return EXERCISE;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package application.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import application.util.SerialExecutor;
+
+/**
+ * The single writer of a pet.
+ *
+ * <p>
+ * Decay ticks, sleep recovery steps and user actions used to change a pet from
+ * the scheduler thread and the FX thread at the same time, which lost updates.
+ * Now every change is sent to the pet's actor as a command. The commands go into
+ * the actor's mailbox (a {@link SerialExecutor}) and run one at a time on the shared
+ * worker pool, so a pet is only ever changed by one thread at a time and no locks
+ * are needed. There is one actor per pet, see {@link #of(Pet)}.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class PetActor {
+
+    private final Pet pet;
+    private final SerialExecutor mailbox;
+
+    private PetActor(Pet pet) {
+        this.pet = pet;
+        this.mailbox = new SerialExecutor();
+    }
+
+    /**
+     * Gets the actor of a pet, creating it the first time.
+     *
+     * @param pet the pet
+     * @return the one actor of that pet
+     */
+    public static PetActor of(Pet pet) {
+        synchronized (pet) {
+            PetActor actor = pet.getActor();
+            if (actor == null) {
+                actor = new PetActor(pet);
+                pet.setActor(actor);
+            }
+            return actor;
+        }
+    }
+
+    /**
+     * Sends a command that changes the pet. Returns right away.
+     *
+     * @param command the command, runs on a worker thread
+     */
+    public void tell(Consumer<Pet> command) {
+        mailbox.execute(() -> command.accept(pet));
+    }
+
+    /**
+     * Sends a command and gets its result once it ran.
+     *
+     * @param <T>   type of the result
+     * @param query the command, runs on a worker thread
+     * @return future completed with the result of the command
+     */
+    public <T> CompletableFuture<T> ask(Function<Pet, T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            try {
+                result.complete(query.apply(pet));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Runs plain tasks in the mailbox, used for the sleep recovery steps
+    SerialExecutor getMailbox() {
+        return mailbox;
+    }
+
+    public Pet getPet() {
+        return pet;
+    }
+}
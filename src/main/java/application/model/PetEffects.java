@@ -0,0 +1,78 @@
+package application.model;
+
+/**
+ * Precomputed table of the stat changes caused by pet actions and items.
+ *
+ * <p>
+ * Every action and every item owns one row of four deltas (health, sleep,
+ * fullness, happiness) in a single flat int array, so applying an interaction
+ * is a few array reads instead of string switches. Actions that take an item
+ * (feed, give gift) have an empty row, their effect comes from the item's row.
+ * Action rows are set here, item rows are copied from the {@link ItemCatalog}.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class PetEffects {
+
+    public static final int HEALTH = 0;
+    public static final int SLEEP = 1;
+    public static final int FULLNESS = 2;
+    public static final int HAPPINESS = 3;
+    public static final int STAT_COUNT = 4;
+
+    private static final int ITEM_OFFSET = PetAction.values().length;
+    private static final int[] DELTAS = new int[(ITEM_OFFSET + ItemCatalog.size()) * STAT_COUNT];
+
+    static {
+        // Actions
+        set(PetAction.TAKE_TO_VET.ordinal(), 15, 0, 0, 0);
+        set(PetAction.PLAY.ordinal(), 0, 0, 0, 15);
+        set(PetAction.EXERCISE.ordinal(), 5, -5, -5, 0);
+
+        // Items, from the catalog
+        ItemCatalog.copyDeltas(DELTAS, ITEM_OFFSET);
+    }
+
+    private PetEffects() {
+    }
+
+    private static void set(int row, int health, int sleep, int fullness, int happiness) {
+        int base = row * STAT_COUNT;
+        DELTAS[base + HEALTH] = health;
+        DELTAS[base + SLEEP] = sleep;
+        DELTAS[base + FULLNESS] = fullness;
+        DELTAS[base + HAPPINESS] = happiness;
+    }
+
+    /**
+     * Gets the start of the row of an action in the delta table.
+     *
+     * @param action the action
+     * @return index of the health delta of the action (int)
+     */
+    public static int rowOf(PetAction action) {
+        return action.ordinal() * STAT_COUNT;
+    }
+
+    /**
+     * Gets the start of the row of an item in the delta table.
+     *
+     * @param item the item
+     * @return index of the health delta of the item (int)
+     */
+    public static int rowOf(ItemType item) {
+        return (ITEM_OFFSET + item.getId()) * STAT_COUNT;
+    }
+
+    /**
+     * Gets one delta from the table.
+     *
+     * @param row  a row returned by rowOf
+     * @param stat one of HEALTH, SLEEP, FULLNESS or HAPPINESS
+     * @return the change to the stat (int)
+     */
+    public static int delta(int row, int stat) {
+        return DELTAS[row + stat];
+    }
+}
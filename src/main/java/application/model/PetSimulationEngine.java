@@ -0,0 +1,314 @@
+package application.model;
+
+import java.util.Arrays;
+
+/**
+ * Headless simulation engine that decays the stats of many pets at once.
+ *
+ * <p>
+ * Instead of one {@link Pet} object per pet, the engine keeps every stat in its
+ * own primitive array (structure-of-arrays) and advances all pets in a single
+ * loop per {@link #tick()}. The decay rules of each {@link PetSpecies} are copied
+ * into small coefficient tables indexed by species, so a tick does no virtual
+ * calls, no list mutation and no allocation.
+ * </p>
+ *
+ * <p>
+ * One tick applies exactly the same rules as {@link Pet#adjustStats()}: sleep,
+ * fullness and happiness decay (clamped at 0), a pet with no health dies and has
+ * all stats set to 0, no sleep costs 5 health and no fullness costs 5 health and
+ * 5 happiness. The engine is not thread safe, ticks and edits must come from the
+ * same thread.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class PetSimulationEngine {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int PENALTY = 5; // same penalty as Pet.applyHealthPenalty()
+
+    private static final int DEAD = PetState.DEAD.bit();
+    private static final int SLEEPING = PetState.SLEEPING.bit();
+    private static final int HUNGRY = PetState.HUNGRY.bit();
+    private static final int ANGRY = PetState.ANGRY.bit();
+
+    // Per-species coefficient tables, indexed by PetSpecies.ordinal()
+    private static final int[] SLEEP_MIN;
+    private static final int[] SLEEP_RANGE;
+    private static final int[] FULLNESS_MIN;
+    private static final int[] FULLNESS_RANGE;
+    private static final int[] HAPPINESS_MIN;
+    private static final int[] HAPPINESS_RANGE;
+
+    static {
+        PetSpecies[] all = PetSpecies.values();
+        SLEEP_MIN = new int[all.length];
+        SLEEP_RANGE = new int[all.length];
+        FULLNESS_MIN = new int[all.length];
+        FULLNESS_RANGE = new int[all.length];
+        HAPPINESS_MIN = new int[all.length];
+        HAPPINESS_RANGE = new int[all.length];
+        for (PetSpecies species : all) {
+            int i = species.ordinal();
+            SLEEP_MIN[i] = species.getSleepMin();
+            SLEEP_RANGE[i] = species.getSleepMax() - species.getSleepMin() + 1;
+            FULLNESS_MIN[i] = species.getFullnessMin();
+            FULLNESS_RANGE[i] = species.getFullnessMax() - species.getFullnessMin() + 1;
+            HAPPINESS_MIN[i] = species.getHappinessMin();
+            HAPPINESS_RANGE[i] = species.getHappinessMax() - species.getHappinessMin() + 1;
+        }
+    }
+
+    private int[] health;
+    private int[] sleep;
+    private int[] fullness;
+    private int[] happiness;
+    private int[] petType;
+    private byte[] species;
+    private byte[] states; // PetState bitmask, same bits as Pet
+    private boolean[] live; // true while the slot holds a pet, a dead pet is still live
+
+    private int size; // highest slot in use + 1
+    private int count; // number of live slots
+    private int[] freeSlots; // stack of removed slots that can be reused
+    private int freeCount;
+
+    private long randomState; // xorshift64 state
+
+    /**
+     * Creates an engine with the default capacity and a time based seed.
+     */
+    public PetSimulationEngine() {
+        this(DEFAULT_CAPACITY, System.nanoTime());
+    }
+
+    /**
+     * Creates an engine with room for the given number of pets before it has to grow.
+     *
+     * @param capacity initial number of slots (int)
+     * @param seed     seed for the decay rolls, the same seed gives the same run (long)
+     */
+    public PetSimulationEngine(int capacity, long seed) {
+        capacity = Math.max(capacity, 1);
+        this.health = new int[capacity];
+        this.sleep = new int[capacity];
+        this.fullness = new int[capacity];
+        this.happiness = new int[capacity];
+        this.petType = new int[capacity];
+        this.species = new byte[capacity];
+        this.states = new byte[capacity];
+        this.live = new boolean[capacity];
+        this.freeSlots = new int[16];
+        this.randomState = seed != 0 ? seed : 0x9E3779B97F4A7C15L; // xorshift must not start at 0
+    }
+
+    /**
+     * Copies a pet into the engine.
+     *
+     * @param pet the pet to simulate
+     * @return the id of the pet inside the engine (int)
+     */
+    public int addPet(Pet pet) {
+        int id = addPet(pet.getSpecies(), pet.getPetType(), pet.getHealth(), pet.getSleep(),
+                pet.getFullness(), pet.getHappiness());
+        states[id] = (byte) pet.getPetStateMask();
+        return id;
+    }
+
+    /**
+     * Adds a pet to the engine.
+     *
+     * @param petSpecies decay rules of the pet
+     * @param type       pet type (sprite folder number)
+     * @param h          health
+     * @param s          sleep
+     * @param f          fullness
+     * @param hap        happiness
+     * @return the id of the pet inside the engine (int)
+     */
+    public int addPet(PetSpecies petSpecies, int type, int h, int s, int f, int hap) {
+        int id;
+        if (freeCount > 0) {
+            id = freeSlots[--freeCount];
+        } else {
+            if (size == health.length) {
+                grow();
+            }
+            id = size++;
+        }
+
+        health[id] = h;
+        sleep[id] = s;
+        fullness[id] = f;
+        happiness[id] = hap;
+        petType[id] = type;
+        species[id] = (byte) petSpecies.ordinal();
+        states[id] = 0;
+        live[id] = true;
+        count++;
+        return id;
+    }
+
+    /**
+     * Removes a pet from the engine. Its id may be handed out again by a later add.
+     * A removed slot is left dead (all stats 0) so the tick loop needs no extra check.
+     *
+     * @param id id returned by addPet
+     * @throws IllegalArgumentException if the id was never handed out or its pet was
+     *                                  already removed
+     */
+    public void removePet(int id) {
+        if (!isLive(id)) {
+            throw new IllegalArgumentException("No pet with id " + id + " in the engine");
+        }
+        live[id] = false;
+        health[id] = 0;
+        sleep[id] = 0;
+        fullness[id] = 0;
+        happiness[id] = 0;
+        petType[id] = 0;
+        species[id] = (byte) PetSpecies.DEFAULT.ordinal();
+        states[id] = (byte) DEAD;
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = id;
+        count--;
+    }
+
+    /**
+     * Advances every pet by one decay tick.
+     */
+    public void tick() {
+        // Local copies so the JIT can keep everything in registers
+        final int[] h = health;
+        final int[] s = sleep;
+        final int[] f = fullness;
+        final int[] hap = happiness;
+        final byte[] sp = species;
+        final byte[] st = states;
+        final int n = size;
+        long r = randomState;
+
+        for (int i = 0; i < n; i++) {
+            // xorshift64, one roll gives three 16 bit random numbers
+            r ^= r << 13;
+            r ^= r >>> 7;
+            r ^= r << 17;
+
+            int kind = sp[i];
+            int sleepValue = s[i] - (SLEEP_MIN[kind] + (int) (((r & 0xFFFF) * SLEEP_RANGE[kind]) >>> 16));
+            int fullnessValue = f[i] - (FULLNESS_MIN[kind]
+                    + (int) ((((r >>> 16) & 0xFFFF) * FULLNESS_RANGE[kind]) >>> 16));
+            int happinessValue = hap[i] - (HAPPINESS_MIN[kind]
+                    + (int) ((((r >>> 32) & 0xFFFF) * HAPPINESS_RANGE[kind]) >>> 16));
+
+            sleepValue = Math.max(sleepValue, 0);
+            fullnessValue = Math.max(fullnessValue, 0);
+            happinessValue = Math.max(happinessValue, 0);
+
+            int healthValue = h[i];
+            if (healthValue <= 0) {
+                // Dead pets (and free slots) stay at 0
+                s[i] = 0;
+                f[i] = 0;
+                hap[i] = 0;
+                st[i] = (byte) DEAD;
+                continue;
+            }
+
+            int hungry = fullnessValue <= 0 ? PENALTY : 0;
+            int tired = sleepValue <= 0 ? PENALTY : 0;
+
+            happinessValue = Math.max(happinessValue - hungry, 0);
+
+            h[i] = Math.max(healthValue - tired - hungry, 0);
+            s[i] = sleepValue;
+            f[i] = fullnessValue;
+            hap[i] = happinessValue;
+            st[i] = (byte) ((tired != 0 ? SLEEPING : 0) | (hungry != 0 ? HUNGRY : 0)
+                    | (happinessValue <= 50 ? ANGRY : 0));
+        }
+
+        randomState = r;
+    }
+
+    /**
+     * Copies the simulated stats of a pet back onto a Pet object.
+     *
+     * @param id  id returned by addPet
+     * @param pet the pet to update
+     */
+    public void copyTo(int id, Pet pet) {
+        pet.setHealth(health[id]);
+        pet.setSleep(sleep[id]);
+        pet.setFullness(fullness[id]);
+        pet.setHappiness(happiness[id]);
+        pet.setPetStateMask(states[id]);
+    }
+
+    private void grow() {
+        int capacity = health.length * 2;
+        health = Arrays.copyOf(health, capacity);
+        sleep = Arrays.copyOf(sleep, capacity);
+        fullness = Arrays.copyOf(fullness, capacity);
+        happiness = Arrays.copyOf(happiness, capacity);
+        petType = Arrays.copyOf(petType, capacity);
+        species = Arrays.copyOf(species, capacity);
+        states = Arrays.copyOf(states, capacity);
+        live = Arrays.copyOf(live, capacity);
+    }
+
+    /**
+     * Accessor method to get the number of pets in the engine
+     *
+     * @return count (int)
+     */
+    public int getPetCount() {
+        return count;
+    }
+
+    public int getHealth(int id) {
+        return health[id];
+    }
+
+    public int getSleep(int id) {
+        return sleep[id];
+    }
+
+    public int getFullness(int id) {
+        return fullness[id];
+    }
+
+    public int getHappiness(int id) {
+        return happiness[id];
+    }
+
+    public int getPetType(int id) {
+        return petType[id];
+    }
+
+    public PetSpecies getSpecies(int id) {
+        return PetSpecies.values()[species[id]];
+    }
+
+    public int getPetStateMask(int id) {
+        return states[id];
+    }
+
+    /**
+     * Checks whether an id holds a pet, dead or alive, that was not removed
+     *
+     * @param id the id to check
+     * @return true if the id was handed out by addPet and not removed since
+     */
+    public boolean isLive(int id) {
+        return id >= 0 && id < size && live[id];
+    }
+
+    public boolean isDead(int id) {
+        return health[id] <= 0;
+    }
+}
@@ -0,0 +1,111 @@
+package application.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This enum holds the per-species stat decay coefficients.
+ * Every decay tick a pet loses between the min and max (inclusive) of each
+ * range from its sleep, fullness and happiness stats. Species with a fixed
+ * rule (Patch, Gunchi, Ash) simply have min == max.
+ *
+ * <p>
+ * Both {@link Pet#adjustStats()} and the headless {@link PetSimulationEngine}
+ * read their decay rules from here, so a species only has to be described once.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public enum PetSpecies {
+
+    // petType, sleep min/max, fullness min/max, happiness min/max
+    DEFAULT(0, 0, 5, 0, 5, 0, 5), // plain Pet: random 0 to 5 on every stat
+    PATCH(1, 5, 5, 1, 1, 3, 3),
+    GUNCHI(2, 2, 2, 4, 4, 3, 3),
+    ASH(3, 1, 1, 2, 2, 6, 6);
+
+    private final int petType;
+    private final int sleepMin;
+    private final int sleepMax;
+    private final int fullnessMin;
+    private final int fullnessMax;
+    private final int happinessMin;
+    private final int happinessMax;
+
+    PetSpecies(int petType, int sleepMin, int sleepMax, int fullnessMin, int fullnessMax,
+            int happinessMin, int happinessMax) {
+        this.petType = petType;
+        this.sleepMin = sleepMin;
+        this.sleepMax = sleepMax;
+        this.fullnessMin = fullnessMin;
+        this.fullnessMax = fullnessMax;
+        this.happinessMin = happinessMin;
+        this.happinessMax = happinessMax;
+    }
+
+    /**
+     * Accessor method to get the pet type (sprite folder number) of the species
+     *
+     * @return petType (int), 0 for the plain Pet
+     */
+    public int getPetType() {
+        return petType;
+    }
+
+    public int getSleepMin() {
+        return sleepMin;
+    }
+
+    public int getSleepMax() {
+        return sleepMax;
+    }
+
+    public int getFullnessMin() {
+        return fullnessMin;
+    }
+
+    public int getFullnessMax() {
+        return fullnessMax;
+    }
+
+    public int getHappinessMin() {
+        return happinessMin;
+    }
+
+    public int getHappinessMax() {
+        return happinessMax;
+    }
+
+    /**
+     * Rolls the sleep decay for one tick.
+     *
+     * @param random the random generator to roll with
+     * @return amount of sleep lost this tick
+     */
+    public int rollSleepDecay(RandomGenerator random) {
+        return roll(random, sleepMin, sleepMax);
+    }
+
+    /**
+     * Rolls the fullness decay for one tick.
+     *
+     * @param random the random generator to roll with
+     * @return amount of fullness lost this tick
+     */
+    public int rollFullnessDecay(RandomGenerator random) {
+        return roll(random, fullnessMin, fullnessMax);
+    }
+
+    /**
+     * Rolls the happiness decay for one tick.
+     *
+     * @param random the random generator to roll with
+     * @return amount of happiness lost this tick
+     */
+    public int rollHappinessDecay(RandomGenerator random) {
+        return roll(random, happinessMin, happinessMax);
+    }
+
+    private static int roll(RandomGenerator random, int min, int max) {
+        return min == max ? min : min + random.nextInt(max - min + 1);
+    }
+}
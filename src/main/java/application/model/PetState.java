@@ -0,0 +1,126 @@
+package application.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This enum lists the negative states a pet can be in.
+ * A pet can be in several states at once, so the states of a pet are stored as
+ * an int bitmask where each state owns one bit (see {@link #bit()}).
+ * A pet with an empty mask is "normal".
+ *
+ * @author CS2212 Group 31
+ */
+public enum PetState {
+
+    DEAD("dead"),
+    SLEEPING("sleeping"),
+    ANGRY("angry"),
+    HUNGRY("hungry");
+
+    private static final PetState[] VALUES = values();
+
+    private final String name;
+    private final int bit;
+
+    PetState(String name) {
+        this.name = name;
+        this.bit = 1 << ordinal();
+    }
+
+    /**
+     * Accessor method to get the name used in save files and by the sprites
+     *
+     * @return name (String)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Accessor method to get the bit of this state inside a state mask
+     *
+     * @return bit (int)
+     */
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * Checks whether this state is set in the given mask.
+     *
+     * @param mask a state mask
+     * @return true if the bit of this state is set
+     */
+    public boolean isIn(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * Looks up a state by its name without allocating.
+     *
+     * @param name the state name ("dead", "sleeping", "angry" or "hungry")
+     * @return the matching state, or null if the name is not a state
+     */
+    public static PetState fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "dead":
+                return DEAD;
+            case "sleeping":
+                return SLEEPING;
+            case "angry":
+                return ANGRY;
+            case "hungry":
+                return HUNGRY;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Builds a state mask from a list of state names. Unknown names are ignored.
+     *
+     * @param names list of state names, may be null
+     * @return the state mask (int)
+     */
+    public static int maskOf(List<String> names) {
+        int mask = 0;
+        if (names != null) {
+            for (String name : names) {
+                PetState state = fromName(name);
+                if (state != null) {
+                    mask |= state.bit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the names of the states in a mask, in declaration order.
+     *
+     * @param mask a state mask
+     * @return a new list of state names
+     */
+    public static List<String> namesOf(int mask) {
+        List<String> names = new ArrayList<>(Integer.bitCount(mask));
+        for (PetState state : VALUES) {
+            if (state.isIn(mask)) {
+                names.add(state.name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns all states in declaration order without copying the values array.
+     *
+     * @return shared array of all states, must not be modified
+     */
+    static PetState[] all() {
+        return VALUES;
+    }
+}
@@ -0,0 +1,59 @@
+package application.model;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Gson type adapter for the state mask of a {@link Pet}.
+ *
+ * <p>
+ * The mask is kept as an int in memory but is read from and written to the save
+ * files in the original format, a JSON array of state names such as
+ * {@code "currentPetStates":["sleeping","hungry"]}, so older saves still load.
+ * Unknown names are skipped and a null value reads as no states.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class PetStateAdapter extends TypeAdapter<Integer> {
+
+    @Override
+    public void write(JsonWriter out, Integer mask) throws IOException {
+        out.beginArray();
+        if (mask != null) {
+            for (PetState state : PetState.all()) {
+                if (state.isIn(mask)) {
+                    out.value(state.getName());
+                }
+            }
+        }
+        out.endArray();
+    }
+
+    @Override
+    public Integer read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+
+        int mask = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.STRING) {
+                PetState state = PetState.fromName(in.nextString());
+                if (state != null) {
+                    mask |= state.bit();
+                }
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endArray();
+        return mask;
+    }
+}
@@ -0,0 +1,337 @@
+package application.model;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import application.util.GameScheduler;
+
+/**
+ * Append only log of play sessions, with play time rolled up per day and per week.
+ *
+ * <p>
+ * A session runs from the launch of the game to its exit. Each one is a fixed size
+ * record (start, end, last slot played, number of actions) in a memory mapped file,
+ * so appending a session or moving the end of the running one is a write to memory
+ * and the operating system gets it to disk, no file is rewritten. The record count
+ * in the header is updated after the record, so a crash never leaves half a record.
+ * The running session's end is moved forward by {@link #tick()} every minute, a crash
+ * loses at most that minute.
+ * </p>
+ *
+ * <p>
+ * Play time is added to per day and per week totals as it happens. They are built
+ * from the log once when it is opened, after that a query for any range of days
+ * only looks at the totals of that range, never at the sessions.
+ * </p>
+ *
+ * <pre>
+ * header: magic "MPSL" | version | record count (long)
+ * record: start millis | end millis | slot (int) | actions (int)
+ * </pre>
+ *
+ * @author Ryan Wagner
+ */
+public final class PlaySessionLog {
+
+    public static final int MAGIC = 0x4D50534C; // "MPSL"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD_BYTES = 24;
+    private static final int INITIAL_RECORDS = 1024;
+
+    //stored at same level as build, next to parentdata.json
+    private static final PlaySessionLog SHARED = new PlaySessionLog(Path.of("playsessions.log"));
+
+    private final Path file;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long count;
+    private long current = -1; // record of the running session, -1 if none
+    private long totalMillis;
+    private boolean hooked; // shutdown hook registered
+
+    // Play time per day and per week (Monday), keyed by epoch day
+    private final TreeMap<Long, Long> dailyMillis = new TreeMap<>();
+    private final Map<Long, Long> weeklyMillis = new HashMap<>();
+
+    private PlaySessionLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the log of this installation, opening it the first time.
+     *
+     * @return the shared log
+     */
+    public static PlaySessionLog shared() {
+        return SHARED;
+    }
+
+    /**
+     * Starts a session now, ending the running one if there is one.
+     */
+    public synchronized void beginSession() {
+        if (!open()) {
+            return;
+        }
+        long now = GameScheduler.shared().millis();
+        finishCurrent();
+
+        ensureCapacity(count + 1);
+        int at = offsetOf(count);
+        buffer.putLong(at, now);
+        buffer.putLong(at + 8, now);
+        buffer.putInt(at + 16, 0);
+        buffer.putInt(at + 20, 0);
+        current = count;
+        buffer.putLong(COUNT_OFFSET, ++count); // publishes the record
+    }
+
+    /**
+     * Moves the end of the running session to now, call every minute or so.
+     */
+    public synchronized void tick() {
+        if (current < 0) {
+            return;
+        }
+        int at = offsetOf(current);
+        long end = buffer.getLong(at + 8);
+        long now = GameScheduler.shared().millis();
+        if (now > end) {
+            buffer.putLong(at + 8, now);
+            addPlayTime(end, now);
+        }
+    }
+
+    /**
+     * Ends the running session now and forces the log to disk.
+     */
+    public synchronized void endSession() {
+        if (current < 0) {
+            return;
+        }
+        finishCurrent();
+        buffer.force();
+    }
+
+    private void finishCurrent() {
+        tick();
+        current = -1;
+    }
+
+    /**
+     * Records the slot played in the running session.
+     *
+     * @param slot the save slot
+     */
+    public synchronized void setSlot(int slot) {
+        if (current >= 0) {
+            buffer.putInt(offsetOf(current) + 16, slot);
+        }
+    }
+
+    /**
+     * Counts an action of the player in the running session.
+     */
+    public synchronized void countAction() {
+        if (current >= 0) {
+            int at = offsetOf(current) + 20;
+            buffer.putInt(at, buffer.getInt(at) + 1);
+        }
+    }
+
+    /**
+     * Gets the number of sessions, the running one included.
+     *
+     * @return the number of sessions
+     */
+    public synchronized long getSessionCount() {
+        open();
+        return count;
+    }
+
+    /**
+     * Gets the play time of every session together.
+     *
+     * @return the play time in milliseconds
+     */
+    public synchronized long getTotalMillis() {
+        open();
+        return totalMillis;
+    }
+
+    /**
+     * Gets the play time of a range of days.
+     *
+     * @param from  the first day
+     * @param until the day after the last day
+     * @return the play time in milliseconds
+     */
+    public synchronized long getMillisBetween(LocalDate from, LocalDate until) {
+        open();
+        long sum = 0;
+        for (long millis : dailyMillis.subMap(from.toEpochDay(), until.toEpochDay()).values()) {
+            sum += millis;
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the play time of one day.
+     *
+     * @param day the day
+     * @return the play time in milliseconds
+     */
+    public synchronized long getDayMillis(LocalDate day) {
+        open();
+        return dailyMillis.getOrDefault(day.toEpochDay(), 0L);
+    }
+
+    /**
+     * Gets the play time of the week (Monday to Sunday) of a day.
+     *
+     * @param day any day of the week
+     * @return the play time in milliseconds
+     */
+    public synchronized long getWeekMillis(LocalDate day) {
+        open();
+        return weeklyMillis.getOrDefault(weekOf(day.toEpochDay()), 0L);
+    }
+
+    /**
+     * Forgets every session except the running one, which starts over now.
+     */
+    public synchronized void clear() {
+        if (!open()) {
+            return;
+        }
+        boolean running = current >= 0;
+        current = -1;
+        count = 0;
+        buffer.putLong(COUNT_OFFSET, 0);
+        totalMillis = 0;
+        dailyMillis.clear();
+        weeklyMillis.clear();
+        if (running) {
+            beginSession();
+        } else {
+            buffer.force();
+        }
+    }
+
+    // Splits [start, end) over the days it touches
+    private void addPlayTime(long start, long end) {
+        totalMillis += end - start;
+        while (start < end) {
+            LocalDate day = Instant.ofEpochMilli(start).atZone(zone).toLocalDate();
+            long dayEnd = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            long part = Math.min(end, dayEnd) - start;
+            dailyMillis.merge(day.toEpochDay(), part, Long::sum);
+            weeklyMillis.merge(weekOf(day.toEpochDay()), part, Long::sum);
+            start += part;
+        }
+    }
+
+    private static long weekOf(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+    }
+
+    private static int offsetOf(long record) {
+        return (int) (HEADER_BYTES + record * RECORD_BYTES);
+    }
+
+    // Maps the file and rolls up the sessions in it, the first time
+    private boolean open() {
+        if (buffer != null) {
+            return true;
+        }
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            boolean created = channel.size() < HEADER_BYTES;
+            map(Math.max(channel.size(), offsetOf(INITIAL_RECORDS)));
+
+            if (created || buffer.getInt(0) != MAGIC) {
+                if (!created) {
+                    System.err.println("Play session log is not valid, starting a new one");
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(COUNT_OFFSET, 0);
+            }
+
+            count = buffer.getLong(COUNT_OFFSET);
+            long readable = (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+            if (count < 0 || count > readable) {
+                count = Math.max(0, Math.min(count, readable)); // a torn header, keep what fits
+            }
+            for (long record = 0; record < count; record++) {
+                int at = offsetOf(record);
+                long start = buffer.getLong(at);
+                long end = buffer.getLong(at + 8);
+                if (end > start) {
+                    addPlayTime(start, end);
+                }
+            }
+
+            if (!hooked) {
+                Runtime.getRuntime().addShutdownHook(new Thread(this::endSession, "play-session-end"));
+                hooked = true;
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Play session log is not available: " + e.getMessage());
+            buffer = null;
+            closeChannel(); // the next call tries again from the start
+            return false;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing play session log: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    // Doubles the mapping when the next record does not fit
+    private void ensureCapacity(long records) {
+        long needed = offsetOf(records);
+        if (needed > buffer.capacity()) {
+            try {
+                map(Math.max(needed, 2L * buffer.capacity()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow the play session log", e);
+            }
+        }
+    }
+
+    private void map(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Play session log is full");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // grows the file
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+}
@@ -13,6 +13,7 @@ public class Player {
     private int score;// score of the player
     private Pet currentPet;// current pet of the player
     private Inventory inventory;// inventory of the player
+    private transient volatile ChangeListeners changeListeners;// listeners, not saved
 
     /**
      * Default constructor creates a player with no name or pet.
@@ -80,6 +81,7 @@ public class Player {
      */
     public void setName(String name) {
         this.name = name;
+        fireChanged();
     }
 
     /**
@@ -90,6 +92,7 @@ public class Player {
      */
     public void setScore(int score) {
         this.score = score;
+        fireChanged();
     }
 
     /**
@@ -100,6 +103,7 @@ public class Player {
      */
     public void setCurrentPet(Pet pet) {
         this.currentPet = pet;
+        fireChanged();
     }
 
     /**
@@ -110,6 +114,38 @@ public class Player {
      */
     public void setInventory(Inventory inventory) {
         this.inventory = inventory;
+        fireChanged();
+    }
+
+    /**
+     * Registers a listener that runs every time the player's name, score, pet or
+     * inventory is replaced. It runs on the thread that made the change.
+     * 
+     * @param listener the listener (Runnable)
+     */
+    public synchronized void addChangeListener(Runnable listener) {
+        if (this.changeListeners == null) {
+            this.changeListeners = new ChangeListeners();
+        }
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addChangeListener
+     * 
+     * @param listener the listener (Runnable)
+     */
+    public synchronized void removeChangeListener(Runnable listener) {
+        if (this.changeListeners != null) {
+            this.changeListeners.remove(listener);
+        }
+    }
+
+    private void fireChanged() {
+        ChangeListeners listeners = this.changeListeners;
+        if (listeners != null) {
+            listeners.fire();
+        }
     }
 
 }
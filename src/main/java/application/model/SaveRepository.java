@@ -0,0 +1,361 @@
+package application.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import application.util.GameScheduler;
+import application.util.SaveWriter;
+
+/**
+ * Every saved game, looked up by its slot id.
+ *
+ * <p>
+ * Slots are numbered from 1 with no upper limit. Save files are spread over 256
+ * shard folders by the low byte of the id ({@code saves/2a/save42.json}), so no
+ * folder grows past a few hundred files even with tens of thousands of profiles.
+ * Saves from before the shards, directly in {@code saves/}, are moved into their
+ * shard the first time the repository is used.
+ * </p>
+ *
+ * <p>
+ * JSON saves end in {@code .json} and binary saves in {@code .mpet}. Both are
+ * read whatever format is being written, so a {@code .json} save still loads after
+ * switching to binary. The next save of that slot replaces it with a {@code .mpet}
+ * file.
+ * </p>
+ *
+ * <p>
+ * Listing and lookups without loading a game go through the {@link SaveSlotIndex}.
+ * The content of recently used saves is kept in a small LRU cache, so going back and
+ * forth between the load screen and a game does not read the same file again. The
+ * cache holds the saved bytes, not the game the player is changing, and every load
+ * decodes a new {@link GameState} from them, so leaving a game without saving never
+ * brings back its unsaved changes. Writes go through the {@link SaveWriter} and
+ * update both the index and the cache.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class SaveRepository {
+
+    public static final Path SAVE_DIR = Path.of("saves");
+    public static final int CACHE_SIZE = 32;
+    public static final long EXIT_WAIT_MILLIS = 2000; // longest wait on exit for a save still in an actor
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".mpet";
+
+    // Saves are written in the compact binary format with -Dmypet.saveFormat=binary,
+    // JSON otherwise. Loading reads either one.
+    private static final boolean BINARY_SAVES = "binary".equals(System.getProperty("mypet.saveFormat"));
+
+    private static final Pattern SAVE_FILE = Pattern.compile("save(\\d+)\\.(?:json|mpet)",
+            Pattern.CASE_INSENSITIVE);
+    private static final SaveRepository SHARED = new SaveRepository();
+
+    private final SaveSlotIndex index;
+    private final Map<Integer, byte[]> cache; // saved content by slot id, guarded by itself
+    private final Map<Integer, CompletableFuture<?>> snapshotting = new ConcurrentHashMap<>(); // saves not taken yet
+    private boolean migrated; // guarded by this
+
+    private SaveRepository() {
+        this.index = SaveSlotIndex.shared();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        // The SaveWriter flushes on exit too, but a save still in its pet's actor has
+        // not reached it yet
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "save-repository-flush"));
+    }
+
+    /**
+     * Gets the repository of the saves folder.
+     *
+     * @return the shared repository
+     */
+    public static SaveRepository shared() {
+        return SHARED.migrated();
+    }
+
+    /**
+     * Gets the file a slot is saved to in the format being written.
+     *
+     * @param id the slot id
+     * @return path of the save file, inside the slot's shard folder
+     */
+    public static Path pathOf(int id) {
+        return pathOf(id, BINARY_SAVES);
+    }
+
+    /**
+     * Gets the save file of a slot in one of the two formats.
+     *
+     * @param id     the slot id
+     * @param binary true for the binary file, false for the JSON one
+     * @return path of the save file, inside the slot's shard folder
+     */
+    public static Path pathOf(int id, boolean binary) {
+        return shardOf(id).resolve("save" + id + (binary ? BINARY_EXTENSION : JSON_EXTENSION));
+    }
+
+    private static Path shardOf(int id) {
+        return SAVE_DIR.resolve(String.format("%02x", id & 0xFF));
+    }
+
+    /**
+     * Gets the save file a slot has on disk, which is in the other format if the
+     * slot was last saved before the format was switched.
+     *
+     * @param id the slot id
+     * @return path of the save file, or pathOf(id) if the slot has none
+     */
+    public static Path savedPathOf(int id) {
+        Path current = pathOf(id);
+        if (Files.exists(current)) {
+            return current;
+        }
+        Path other = pathOf(id, !BINARY_SAVES);
+        return Files.exists(other) ? other : current;
+    }
+
+    /**
+     * Gets the slot id of a save file name.
+     *
+     * @param fileName name of a file in the saves folder
+     * @return the slot id, or -1 if it is not a save file
+     */
+    public static int idOf(String fileName) {
+        Matcher matcher = SAVE_FILE.matcher(fileName);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Loads a game, from the cache if it was used recently.
+     *
+     * @param id the slot id
+     * @return the game state brought up to the current time, or null if the slot
+     *         is empty or its save cannot be read
+     */
+    public GameState load(int id) {
+        CompletableFuture<?> saving = snapshotting.get(id);
+        if (saving != null) {
+            saving.exceptionally(e -> null).join(); // a save still waiting in its pet's actor comes first
+        }
+
+        byte[] content;
+        synchronized (cache) {
+            content = cache.get(id);
+        }
+
+        GameState gameState;
+        if (content != null) {
+            try {
+                gameState = GameState.fromBytes(content); // a new copy, never the one being played
+            } catch (IOException e) {
+                evict(id);
+                System.out.println("Error loading game state from slot " + id + ": " + e.getMessage());
+                return null;
+            }
+        } else {
+            gameState = read(id);
+            if (gameState == null) {
+                return null;
+            }
+        }
+
+        gameState.catchUp(GameScheduler.shared().millis()); // decay for the time the game was closed
+        gameState.restoreCooldowns();
+        return gameState;
+    }
+
+    /**
+     * Saves a game in the background, see SaveWriter.
+     *
+     * <p>
+     * The snapshot is taken and encoded in the pet's {@link PetActor}, so it holds
+     * every command sent to the pet before the save and none sent after it, and the
+     * caller's thread does no encoding.
+     * </p>
+     *
+     * @param gameState the game to save, into its own slot
+     * @return future completed with the checksum once the save is on disk
+     */
+    public CompletableFuture<Long> save(GameState gameState) {
+        int slot = gameState.getSaveSlot();
+        Pet pet = gameState.getPlayer() == null ? null : gameState.getPlayer().getCurrentPet();
+        if (pet == null) {
+            return write(gameState); // nothing else changes a game without a pet
+        }
+
+        CompletableFuture<CompletableFuture<Long>> taken = PetActor.of(pet).ask(target -> write(gameState));
+        snapshotting.put(slot, taken);
+        taken.whenComplete((written, e) -> snapshotting.remove(slot, taken));
+        return taken.thenCompose(Function.identity());
+    }
+
+    // Takes the snapshot and hands it to the SaveWriter, runs in the pet's actor
+    private CompletableFuture<Long> write(GameState gameState) {
+        Path savePath = pathOf(gameState.getSaveSlot());
+        gameState.markSaved(GameScheduler.shared().millis());
+
+        byte[] content;
+        if (BINARY_SAVES) {
+            content = BinarySaveCodec.encode(gameState);
+        } else {
+            content = SaveWriter.gson().toJson(gameState).getBytes(StandardCharsets.UTF_8);
+        }
+        CompletableFuture<Long> written = SaveWriter.shared().saveBytes(savePath, content);
+        // A save in the other format is now out of date, drop it so it is not read instead
+        Path stale = pathOf(gameState.getSaveSlot(), !BINARY_SAVES);
+        written.thenRun(() -> {
+            try {
+                Files.deleteIfExists(stale);
+            } catch (IOException e) {
+                System.err.println("Error deleting old save " + stale + ": " + e.getMessage());
+            }
+        });
+        index.saved(gameState, written);
+        synchronized (cache) {
+            cache.put(gameState.getSaveSlot(), content);
+        }
+        return written;
+    }
+
+    /**
+     * Waits for the saves still being taken in their pets' actors, then writes every
+     * pending save now, on the calling thread.
+     */
+    public void flush() {
+        for (CompletableFuture<?> saving : snapshotting.values()) {
+            try {
+                saving.get(EXIT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                System.err.println("Error waiting for a save: " + e);
+            }
+        }
+        SaveWriter.shared().flush();
+    }
+
+    /**
+     * Looks up the summary of a slot without loading it.
+     *
+     * @param id the slot id
+     * @return the summary, or null if the slot is empty
+     */
+    public SaveSlotIndex.Entry find(int id) {
+        return index.get(id);
+    }
+
+    /**
+     * Lists a page of the saved slots.
+     *
+     * @param offset number of saved slots to skip
+     * @param limit  most slots to return
+     * @return the summaries ordered by slot id
+     */
+    public List<SaveSlotIndex.Entry> list(int offset, int limit) {
+        return index.list(offset, limit);
+    }
+
+    /**
+     * Gets the number of saved slots.
+     *
+     * @return how many slots have a save
+     */
+    public int count() {
+        return index.count();
+    }
+
+    /**
+     * Gets the highest slot id with a save.
+     *
+     * @return the slot id, or 0 if there are no saves
+     */
+    public int lastSlot() {
+        return index.lastSlot();
+    }
+
+    /**
+     * Forgets the cached copy of a slot whose file was changed outside the
+     * repository, e.g. by the parental revive.
+     *
+     * @param id the slot id
+     */
+    public void evict(int id) {
+        synchronized (cache) {
+            cache.remove(id);
+        }
+    }
+
+    private GameState read(int id) {
+        try {
+            SaveWriter.shared().flush(pathOf(id)); // a save still in the queue would be missed
+            Path savePath = savedPathOf(id);
+            if (!Files.exists(savePath)) {
+                index.remove(id);
+                return null; // Return null if the file doesn't exist
+            }
+
+            byte[] content = Files.readAllBytes(savePath);
+            GameState gameState = GameState.fromBytes(content);
+            index.refresh(id, content, gameState); // in case the file was changed elsewhere
+            synchronized (cache) {
+                cache.put(id, content);
+            }
+            return gameState;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error loading game state from slot " + id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Moves saves from before the shard folders into their shard, once
+    private synchronized SaveRepository migrated() {
+        if (migrated) {
+            return this;
+        }
+        migrated = true;
+
+        if (!Files.isDirectory(SAVE_DIR)) {
+            return this;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(SAVE_DIR, "save*")) {
+            for (Path file : files) {
+                int id = idOf(file.getFileName().toString());
+                if (id < 0 || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                // Renamed to the lower case name pathOf() looks for, e.g. save1.JSON
+                // becomes 01/save1.json, file systems that tell case apart miss it otherwise
+                boolean binary = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(BINARY_EXTENSION);
+                Path target = pathOf(id, binary);
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error moving old saves into shard folders: " + e.getMessage());
+        }
+        return this;
+    }
+}
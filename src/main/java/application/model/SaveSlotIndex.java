@@ -0,0 +1,299 @@
+package application.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import application.util.SaveWriter;
+
+/**
+ * Small summary of every save slot, kept in one file next to the saves.
+ *
+ * <p>
+ * The load screen and the parental controls only need a pet's name, type and
+ * health to draw a slot, but used to read and parse every whole save to get them.
+ * This index keeps one {@link Entry} per slot in {@code saves/index.json}, which
+ * is read with a single read the first time it is needed and then served from
+ * memory. The save path updates it (see {@link #saved(GameState, CompletableFuture)})
+ * and rewrites the file in the background through the {@link SaveWriter}.
+ * </p>
+ *
+ * <p>
+ * Each entry keeps the CRC32C of its save file. Whenever a save is read anyway
+ * (loading a game, reviving a pet) the checksum is compared and a stale entry is
+ * rebuilt from the save. If the index file is missing it is rebuilt once by
+ * scanning the saves folder.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class SaveSlotIndex {
+
+    private static final Path INDEX_FILE = Path.of("saves", "index.json"); // next to the saves, see SaveRepository
+    private static final SaveSlotIndex SHARED = new SaveSlotIndex(INDEX_FILE);
+
+    private final Path indexFile;
+    private TreeMap<Integer, Entry> entries; // null until loaded, guarded by this
+
+    private SaveSlotIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Gets the index of the saves folder.
+     *
+     * @return the shared index
+     */
+    public static SaveSlotIndex shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the summary of a slot.
+     *
+     * @param slot the slot number
+     * @return the entry, or null if the slot is empty
+     */
+    public synchronized Entry get(int slot) {
+        return loaded().get(slot);
+    }
+
+    /**
+     * Gets the summaries of all slots.
+     *
+     * @return the entries ordered by slot number
+     */
+    public synchronized List<Entry> getAll() {
+        return new ArrayList<>(loaded().values());
+    }
+
+    /**
+     * Gets a page of the slot summaries.
+     *
+     * @param offset number of entries to skip
+     * @param limit  most entries to return
+     * @return the entries ordered by slot number
+     */
+    public synchronized List<Entry> list(int offset, int limit) {
+        List<Entry> page = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (Entry entry : loaded().values()) {
+            if (skipped++ < offset) {
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    /**
+     * Gets the number of slots with a save.
+     *
+     * @return the number of entries
+     */
+    public synchronized int count() {
+        return loaded().size();
+    }
+
+    /**
+     * Gets the highest slot number with a save.
+     *
+     * @return the slot number, or 0 if there are no saves
+     */
+    public synchronized int lastSlot() {
+        return loaded().isEmpty() ? 0 : entries.lastKey();
+    }
+
+    /**
+     * Records a save that was just handed to the SaveWriter. Call on the saving
+     * thread, right after GameState.markSaved(), so the entry matches the save.
+     *
+     * @param gameState the state being saved
+     * @param written   future of the write, completed with the file's checksum
+     */
+    public void saved(GameState gameState, CompletableFuture<Long> written) {
+        Entry entry = Entry.of(gameState, 0); // checksum is known once written
+        synchronized (this) {
+            loaded().put(entry.slot, entry);
+        }
+        written.thenAccept(checksum -> {
+            synchronized (this) {
+                // A newer save of the slot may have replaced the entry in the meantime
+                if (loaded().get(entry.slot) == entry) {
+                    entries.put(entry.slot, entry.withChecksum(checksum));
+                    persist();
+                }
+            }
+        });
+    }
+
+    /**
+     * Brings a slot's entry up to date with save content that was read anyway.
+     * Does nothing if the entry already matches the content.
+     *
+     * @param slot      the slot number
+     * @param content   the content of the slot's save file
+     * @param gameState the content decoded, before any catch up
+     */
+    public synchronized void refresh(int slot, byte[] content, GameState gameState) {
+        long checksum = SaveWriter.checksum(content);
+        Entry entry = loaded().get(slot);
+        if (entry == null || entry.checksum != checksum) {
+            entries.put(slot, Entry.of(gameState, checksum).inSlot(slot));
+            persist();
+        }
+    }
+
+    /**
+     * Removes a slot whose save file is gone.
+     *
+     * @param slot the slot number
+     */
+    public synchronized void remove(int slot) {
+        if (loaded().remove(slot) != null) {
+            persist();
+        }
+    }
+
+    // Reads the index file the first time, or rebuilds it from the saves
+    private TreeMap<Integer, Entry> loaded() {
+        if (entries != null) {
+            return entries;
+        }
+
+        entries = new TreeMap<>();
+        if (Files.exists(indexFile)) {
+            try {
+                String json = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+                Entry[] saved = SaveWriter.gson().fromJson(json, Entry[].class);
+                if (saved != null) {
+                    for (Entry entry : saved) {
+                        entries.put(entry.slot, entry);
+                    }
+                    return entries;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error reading save index, rebuilding it: " + e.getMessage());
+            }
+        }
+
+        rebuild();
+        return entries;
+    }
+
+    private void rebuild() {
+        if (!Files.isDirectory(SaveRepository.SAVE_DIR)) {
+            return;
+        }
+
+        // The saves and their shard folders, see SaveRepository
+        try (Stream<Path> files = Files.walk(SaveRepository.SAVE_DIR, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                int slot = SaveRepository.idOf(file.getFileName().toString());
+                if (slot < 0) {
+                    continue;
+                }
+                try {
+                    byte[] content = Files.readAllBytes(file);
+                    entries.put(slot, Entry.of(GameState.fromBytes(content), SaveWriter.checksum(content)).inSlot(slot));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Skipping unreadable save " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error scanning saves: " + e.getMessage());
+        }
+        persist();
+    }
+
+    // The index is only turned into JSON when the writer gets to it, so a burst
+    // of saves rewrites a large index once instead of once per save
+    private void persist() {
+        SaveWriter.shared().saveLazily(indexFile, () -> {
+            Entry[] snapshot;
+            synchronized (this) {
+                snapshot = entries.values().toArray(new Entry[0]);
+            }
+            return SaveWriter.gson().toJson(snapshot).getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Summary of one save slot.
+     */
+    public static final class Entry {
+        private final int slot;
+        private final String name; // pet name, null if the save has no pet yet
+        private final int petType;
+        private final int health;
+        private final long lastSaved;
+        private final long checksum; // CRC32C of the save file, 0 while being written
+
+        private Entry(int slot, String name, int petType, int health, long lastSaved, long checksum) {
+            this.slot = slot;
+            this.name = name;
+            this.petType = petType;
+            this.health = health;
+            this.lastSaved = lastSaved;
+            this.checksum = checksum;
+        }
+
+        private static Entry of(GameState gameState, long checksum) {
+            Pet pet = gameState.getPlayer() == null ? null : gameState.getPlayer().getCurrentPet();
+            return new Entry(gameState.getSaveSlot(), pet == null ? null : pet.getName(),
+                    pet == null ? -1 : pet.getPetType(), pet == null ? 0 : pet.getHealth(),
+                    gameState.getLastTickMillis(), checksum);
+        }
+
+        private Entry withChecksum(long checksum) {
+            return new Entry(slot, name, petType, health, lastSaved, checksum);
+        }
+
+        // The file name wins over the slot written inside the save
+        private Entry inSlot(int slot) {
+            return new Entry(slot, name, petType, health, lastSaved, checksum);
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPetType() {
+            return petType;
+        }
+
+        public int getHealth() {
+            return health;
+        }
+
+        public long getLastSaved() {
+            return lastSaved;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * Checks whether the slot has a pet.
+         *
+         * @return true if a pet was saved in the slot
+         */
+        public boolean hasPet() {
+            return name != null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package application.model;
+
+import java.util.concurrent.Executor;
+
+import application.util.GameScheduler;
+
+/**
+ * Puts a pet to bed without blocking the caller.
+ *
+ * <p>
+ * Going to bed used to loop with {@code Thread.sleep} until the pet was rested,
+ * which froze whatever thread asked for it. A SleepRecovery instead schedules a
+ * repeating step on the shared {@link GameScheduler}: every second the pet gains
+ * 25 sleep until it reaches 100, then it wakes up (the sleeping state is removed).
+ * Progress is published to an optional {@link Listener}, and the recovery can be
+ * cancelled at any time.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class SleepRecovery {
+
+    public static final long STEP_MILLIS = 1000; // time between two recovery steps
+    public static final int STEP_AMOUNT = 25; // sleep gained per step
+    public static final int MAX_SLEEP = 100;
+
+    /**
+     * Receives the progress of a recovery. Called on the thread running the steps,
+     * UI code has to hand off to the FX thread itself.
+     */
+    public interface Listener {
+
+        /**
+         * Called after every recovery step.
+         *
+         * @param pet   the recovering pet
+         * @param sleep the sleep stat after the step
+         */
+        void onProgress(Pet pet, int sleep);
+
+        /**
+         * Called once when the recovery ends.
+         *
+         * @param pet       the pet
+         * @param completed true if the pet is fully rested, false if it was cancelled
+         */
+        default void onFinished(Pet pet, boolean completed) {
+        }
+    }
+
+    private final Pet pet;
+    private final GameScheduler scheduler;
+    private final Executor stepExecutor;
+    private final Listener listener;
+    private GameScheduler.ScheduledTask task;
+    private boolean finished;
+
+    /**
+     * Creates a recovery for a pet, call start() to begin.
+     *
+     * @param pet       the pet to put to bed
+     * @param scheduler scheduler that runs the recovery steps
+     * @param listener  receives progress events, can be null
+     */
+    public SleepRecovery(Pet pet, GameScheduler scheduler, Listener listener) {
+        this(pet, scheduler, Runnable::run, listener);
+    }
+
+    /**
+     * Creates a recovery whose steps are handed to an executor, e.g. the mailbox of
+     * the pet's actor, instead of running on the scheduler thread.
+     *
+     * @param pet          the pet to put to bed
+     * @param scheduler    scheduler that times the recovery steps
+     * @param stepExecutor runs the steps
+     * @param listener     receives progress events, can be null
+     */
+    public SleepRecovery(Pet pet, GameScheduler scheduler, Executor stepExecutor, Listener listener) {
+        this.pet = pet;
+        this.scheduler = scheduler;
+        this.stepExecutor = stepExecutor;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the recovery. Returns right away, the steps run on the scheduler.
+     */
+    public synchronized void start() {
+        if (task != null || finished) {
+            return; // already started
+        }
+
+        if (pet.getSleep() >= MAX_SLEEP) {
+            finish(true); // nothing to recover
+            return;
+        }
+        task = scheduler.scheduleAtFixedRate(() -> stepExecutor.execute(this::step), STEP_MILLIS, STEP_MILLIS);
+    }
+
+    private synchronized void step() {
+        if (finished) {
+            return;
+        }
+
+        int sleep = Math.min(pet.getSleep() + STEP_AMOUNT, MAX_SLEEP); // Ensures sleep doesn't exceed 100
+        pet.setSleep(sleep);
+        if (listener != null) {
+            listener.onProgress(pet, sleep);
+        }
+
+        if (sleep >= MAX_SLEEP) {
+            finish(true);
+        }
+    }
+
+    /**
+     * Stops the recovery early. The sleep gained so far is kept.
+     */
+    public synchronized void cancel() {
+        if (!finished) {
+            finish(false);
+        }
+    }
+
+    private void finish(boolean completed) {
+        finished = true;
+        if (task != null) {
+            task.cancel();
+        }
+        if (completed && pet.isSleeping()) {
+            pet.removePetState(PetState.SLEEPING);
+        }
+        if (listener != null) {
+            listener.onFinished(pet, completed);
+        }
+    }
+
+    /**
+     * Checks whether the recovery is still going.
+     *
+     * @return true if started and not yet finished or cancelled
+     */
+    public synchronized boolean isRunning() {
+        return task != null && !finished;
+    }
+}
@@ -0,0 +1,302 @@
+package application.model;
+
+import application.util.GameScheduler;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Predicts when pets will cross a stat threshold and wakes up only then.
+ *
+ * <p>
+ * Instead of asking every pet for {@link Pet#warning()} or
+ * {@link Pet#getMainPetState()} every second, the index works out from the decay
+ * rates of each pet's species the exact tick at which it will first show a warning
+ * (a stat under 25), go hungry, fall asleep or die, and keeps those times in a
+ * priority queue. A single task on the {@link GameScheduler} is armed for the
+ * earliest one, so the cost is O(log n) per crossing that actually happens, not
+ * O(pets) per second.
+ * </p>
+ *
+ * <p>
+ * Predictions are exact for pets in lazy decay mode. Pets on the decay timer decay
+ * by a random amount, so call {@link #update(Pet)} whenever their stats change to
+ * predict again. Old predictions are dropped by bumping the pet's version, not by
+ * searching the queue.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public class ThresholdIndex {
+
+    public static final int WARNING_LEVEL = 25; // same as Pet.warning()
+    private static final long NEVER = 1L << 40; // ticks, far past the death of any pet
+    private static final int COMPACT_FACTOR = 4; // stale entries allowed per live one before compacting
+    private static final int COMPACT_SLACK = 64;
+
+    /**
+     * The thresholds the index watches.
+     */
+    public enum Crossing {
+        WARNING, HUNGRY, SLEEPING, DEAD
+    }
+
+    /**
+     * Receives crossings. Called on the scheduler thread, UI code has to hand off
+     * to the FX thread itself.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a pet crosses a threshold.
+         *
+         * @param pet      the pet
+         * @param crossing the threshold it crossed
+         */
+        void onCrossing(Pet pet, Crossing crossing);
+    }
+
+    private final GameScheduler scheduler;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Map<Pet, Tracked> tracked = new IdentityHashMap<>();
+    private GameScheduler.ScheduledTask wakeup;
+    private long wakeupMillis = Long.MAX_VALUE;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param scheduler scheduler that runs the wakeups
+     */
+    public ThresholdIndex(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts watching a pet, or replaces its listener if it is already watched.
+     *
+     * @param pet      the pet
+     * @param listener receives the crossings of the pet
+     */
+    public synchronized void track(Pet pet, Listener listener) {
+        Tracked entry = tracked.get(pet);
+        if (entry == null) {
+            entry = new Tracked();
+            tracked.put(pet, entry);
+        }
+        entry.listener = listener;
+        predict(pet, entry, scheduler.millis());
+    }
+
+    /**
+     * Predicts the crossings of a watched pet again, call after its stats changed.
+     *
+     * @param pet the pet
+     */
+    public synchronized void update(Pet pet) {
+        Tracked entry = tracked.get(pet);
+        if (entry != null) {
+            predict(pet, entry, scheduler.millis());
+        }
+    }
+
+    /**
+     * Stops watching a pet.
+     *
+     * @param pet the pet
+     */
+    public synchronized void untrack(Pet pet) {
+        Tracked entry = tracked.remove(pet);
+        if (entry != null) {
+            entry.version++; // its queued entries are skipped from now on
+        }
+        if (tracked.isEmpty()) {
+            queue.clear();
+            disarm();
+        }
+    }
+
+    /**
+     * Gets the time of the next crossing of a pet.
+     *
+     * @param pet      the pet
+     * @param crossing the threshold
+     * @return time in milliseconds, or Long.MAX_VALUE if none is predicted
+     */
+    public synchronized long nextCrossingMillis(Pet pet, Crossing crossing) {
+        Tracked entry = tracked.get(pet);
+        return entry == null ? Long.MAX_VALUE : entry.dueMillis[crossing.ordinal()];
+    }
+
+    private void predict(Pet pet, Tracked entry, long nowMillis) {
+        entry.version++;
+        if (queue.size() > COMPACT_FACTOR * Crossing.values().length * tracked.size() + COMPACT_SLACK) {
+            // Pets that are updated often leave many stale entries behind, drop them
+            queue.removeIf(stale -> stale.version != stale.tracked.version);
+        }
+        // Only reads the pet, this runs on whatever thread reported the change
+        LazyDecay.View view = new LazyDecay.View();
+        pet.read(nowMillis, view);
+        long baseMillis = view.validAtMillis;
+        PetSpecies species = pet.getSpecies();
+        int health = view.stats[PetEffects.HEALTH];
+        int sleep = view.stats[PetEffects.SLEEP];
+        int fullness = view.stats[PetEffects.FULLNESS];
+        int happiness = view.stats[PetEffects.HAPPINESS];
+        int states = view.states;
+        int sleepRate = LazyDecay.sleepRateOf(species);
+        int fullnessRate = LazyDecay.fullnessRateOf(species);
+        int happinessRate = LazyDecay.happinessRateOf(species);
+        int[] carry = view.carry; // so the prediction loses points when the pet does
+
+        int[] stats = new int[PetEffects.STAT_COUNT];
+        long deathTick = firstTick(Crossing.DEAD, health, sleep, fullness, happiness, states, sleepRate,
+                fullnessRate, happinessRate, carry, NEVER, stats);
+        // The other stats drop to 0 when the pet dies, only crossings before that count
+        long lastAliveTick = deathTick == 0 ? NEVER : deathTick - 1;
+
+        for (Crossing crossing : Crossing.values()) {
+            long tick = crossing == Crossing.DEAD ? deathTick
+                    : firstTick(crossing, health, sleep, fullness, happiness, states, sleepRate, fullnessRate,
+                            happinessRate, carry, lastAliveTick, stats);
+            long due = tick == 0 ? Long.MAX_VALUE : baseMillis + tick * LazyDecay.TICK_MILLIS;
+            entry.dueMillis[crossing.ordinal()] = due;
+            if (due != Long.MAX_VALUE) {
+                queue.add(new Entry(pet, entry, entry.version, crossing, due));
+            }
+        }
+        arm();
+    }
+
+    // First tick in 1..limit at which the crossing has happened, 0 if it already has
+    // or does not by then. Stats only go down between two updates, so a binary search
+    // is enough.
+    private static long firstTick(Crossing crossing, int health, int sleep, int fullness, int happiness,
+            int states, int sleepRate, int fullnessRate, int happinessRate, int[] carry, long limit,
+            int[] stats) {
+        stats[PetEffects.HEALTH] = health;
+        stats[PetEffects.SLEEP] = sleep;
+        stats[PetEffects.FULLNESS] = fullness;
+        stats[PetEffects.HAPPINESS] = happiness;
+        if (crossed(crossing, stats, states) || limit <= 0) {
+            return 0;
+        }
+        states = LazyDecay.project(health, sleep, fullness, happiness, sleepRate, fullnessRate, happinessRate,
+                carry, limit, stats);
+        if (!crossed(crossing, stats, states)) {
+            return 0;
+        }
+
+        long low = 1;
+        long high = limit;
+        while (low < high) {
+            long mid = low + (high - low) / 2;
+            states = LazyDecay.project(health, sleep, fullness, happiness, sleepRate, fullnessRate,
+                    happinessRate, carry, mid, stats);
+            if (crossed(crossing, stats, states)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean crossed(Crossing crossing, int[] stats, int states) {
+        switch (crossing) {
+            case WARNING:
+                return stats[PetEffects.HEALTH] < WARNING_LEVEL || stats[PetEffects.SLEEP] < WARNING_LEVEL
+                        || stats[PetEffects.FULLNESS] < WARNING_LEVEL || stats[PetEffects.HAPPINESS] < WARNING_LEVEL;
+            case HUNGRY:
+                return stats[PetEffects.FULLNESS] <= 0;
+            case SLEEPING:
+                return stats[PetEffects.SLEEP] <= 0;
+            default:
+                return PetState.DEAD.isIn(states);
+        }
+    }
+
+    // Makes sure the wakeup is set for the earliest live entry
+    private void arm() {
+        Entry head = peekLive();
+        long due = head == null ? Long.MAX_VALUE : head.dueMillis;
+        if (due == wakeupMillis) {
+            return;
+        }
+        disarm();
+        if (head != null) {
+            wakeupMillis = due;
+            wakeup = scheduler.schedule(this::fire, Math.max(due - scheduler.millis(), 0));
+        }
+    }
+
+    private void disarm() {
+        if (wakeup != null) {
+            wakeup.cancel();
+            wakeup = null;
+        }
+        wakeupMillis = Long.MAX_VALUE;
+    }
+
+    private Entry peekLive() {
+        Entry head = queue.peek();
+        while (head != null && head.version != head.tracked.version) {
+            queue.poll();
+            head = queue.peek();
+        }
+        return head;
+    }
+
+    private void fire() {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            wakeup = null;
+            wakeupMillis = Long.MAX_VALUE;
+            long now = scheduler.millis();
+            Entry head;
+            while ((head = peekLive()) != null && head.dueMillis <= now) {
+                queue.poll();
+                head.tracked.dueMillis[head.crossing.ordinal()] = Long.MAX_VALUE;
+                due.add(head);
+            }
+            arm();
+        }
+
+        // Listeners run outside the lock so they can call back into the index
+        for (Entry entry : due) {
+            Listener listener = entry.tracked.listener;
+            if (listener != null) {
+                listener.onCrossing(entry.pet, entry.crossing);
+            }
+        }
+    }
+
+    // Per pet bookkeeping, only touched while holding the index lock
+    private static final class Tracked {
+        private Listener listener;
+        private int version;
+        private final long[] dueMillis = new long[Crossing.values().length];
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final Pet pet;
+        private final Tracked tracked;
+        private final int version;
+        private final Crossing crossing;
+        private final long dueMillis;
+
+        private Entry(Pet pet, Tracked tracked, int version, Crossing crossing, long dueMillis) {
+            this.pet = pet;
+            this.tracked = tracked;
+            this.version = version;
+            this.crossing = crossing;
+            this.dueMillis = dueMillis;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Long.compare(dueMillis, other.dueMillis);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package application.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The hours of the week in which playing is allowed, as a bitmap.
+ *
+ * <p>
+ * Bit {@code day * 24 + hour} is set when the hour is allowed, with Monday as day 0,
+ * so the whole week is 168 bits in three longs. Checking a time is a shift and a
+ * mask. {@link #nextTransition(LocalDateTime)} finds the next hour whose bit differs
+ * from the current one by scanning words, so the game can sleep until exactly that
+ * instant instead of checking every minute. Instances never change once built.
+ * </p>
+ *
+ * @author Ryan Wagner
+ */
+public final class WeekSchedule {
+
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    private static final int WORDS = 3;
+    private static final long[] FULL = { -1L, -1L, (1L << (HOURS_PER_WEEK - 128)) - 1 };
+
+    private final long[] bits;
+
+    private WeekSchedule(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Creates a schedule that allows the same hours on every day.
+     *
+     * @param hours allowed hours of the day (0-23), others are ignored
+     * @return the schedule
+     */
+    public static WeekSchedule everyDay(List<Integer> hours) {
+        long[] bits = new long[WORDS];
+        for (Integer hour : hours) {
+            if (hour == null || hour < 0 || hour > 23) {
+                continue;
+            }
+            for (int day = 0; day < 7; day++) {
+                int index = day * 24 + hour;
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return new WeekSchedule(bits);
+    }
+
+    /**
+     * Creates a schedule from its bitmap, as returned by toBits().
+     *
+     * @param bits the three words of the bitmap, bits past hour 167 are ignored
+     * @return the schedule
+     */
+    public static WeekSchedule fromBits(long[] bits) {
+        if (bits == null || bits.length != WORDS) {
+            throw new IllegalArgumentException("a week schedule has " + WORDS + " words");
+        }
+        long[] copy = bits.clone();
+        copy[WORDS - 1] &= FULL[WORDS - 1];
+        return new WeekSchedule(copy);
+    }
+
+    /**
+     * Gets the bitmap, for saving.
+     *
+     * @return a copy of the three words of the bitmap
+     */
+    public long[] toBits() {
+        return bits.clone();
+    }
+
+    /**
+     * Creates a copy with one hour allowed or not.
+     *
+     * @param day     the day of the week
+     * @param hour    the hour of the day (0-23)
+     * @param allowed whether playing is allowed in that hour
+     * @return the changed schedule
+     */
+    public WeekSchedule with(DayOfWeek day, int hour, boolean allowed) {
+        int index = indexOf(day, hour);
+        long[] copy = bits.clone();
+        if (allowed) {
+            copy[index >>> 6] |= 1L << index;
+        } else {
+            copy[index >>> 6] &= ~(1L << index);
+        }
+        return new WeekSchedule(copy);
+    }
+
+    /**
+     * Gets the hours that are allowed on every day of the week.
+     *
+     * @return the hours (0-23) in order
+     */
+    public List<Integer> hoursAllowedEveryDay() {
+        List<Integer> hours = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            boolean everyDay = true;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                everyDay &= isAllowed(day, hour);
+            }
+            if (everyDay) {
+                hours.add(hour);
+            }
+        }
+        return List.copyOf(hours);
+    }
+
+    /**
+     * Checks whether an hour of the week is allowed.
+     *
+     * @param day  the day of the week
+     * @param hour the hour of the day (0-23)
+     * @return true if playing is allowed in that hour
+     */
+    public boolean isAllowed(DayOfWeek day, int hour) {
+        return isAllowed(indexOf(day, hour));
+    }
+
+    /**
+     * Checks whether a time is in an allowed hour.
+     *
+     * @param time the local time
+     * @return true if playing is allowed at that time
+     */
+    public boolean isAllowed(LocalDateTime time) {
+        return isAllowed(time.getDayOfWeek(), time.getHour());
+    }
+
+    /**
+     * Finds when being allowed to play next changes.
+     *
+     * @param time the local time to search from
+     * @return the start of the next hour that differs from the hour of the given
+     *         time, or null if every hour of the week is the same
+     */
+    public LocalDateTime nextTransition(LocalDateTime time) {
+        int from = indexOf(time.getDayOfWeek(), time.getHour());
+        boolean allowed = isAllowed(from);
+
+        int index = nextDiffering(from + 1, HOURS_PER_WEEK, allowed);
+        int hoursAhead;
+        if (index >= 0) {
+            hoursAhead = index - from;
+        } else {
+            index = nextDiffering(0, from, allowed); // wraps around to next week
+            if (index < 0) {
+                return null;
+            }
+            hoursAhead = HOURS_PER_WEEK - from + index;
+        }
+        return time.truncatedTo(ChronoUnit.HOURS).plusHours(hoursAhead);
+    }
+
+    // First index in [from, to) whose bit is not the given value, or -1
+    private int nextDiffering(int from, int to, boolean value) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6 && from < to; word++) {
+            long differing = (value ? ~bits[word] : bits[word]) & FULL[word];
+            if (word == from >>> 6) {
+                differing &= -1L << from; // only bits at or after from
+            }
+            if (differing != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(differing);
+                return index < to ? index : -1;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isAllowed(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static int indexOf(DayOfWeek day, int hour) {
+        if (hour < 0 || hour > 23) {
+            throw new IllegalArgumentException("hour must be 0-23: " + hour);
+        }
+        return (day.getValue() - 1) * 24 + hour;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof WeekSchedule && Arrays.equals(bits, ((WeekSchedule) other).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
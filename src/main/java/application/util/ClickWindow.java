@@ -0,0 +1,126 @@
+package application.util;
+
+/**
+ * Sliding window over the times of the last few clicks of one button.
+ *
+ * <p>
+ * The window keeps the times of the last {@code clicks} clicks in a small ring
+ * buffer and answers on each click by comparing the new time with the oldest one,
+ * so it needs no timer, no thread and no allocation per click. It is used two ways:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #record(long)} detects a burst, e.g. "5 clicks in 5 seconds" on the
+ * reward page.</li>
+ * <li>{@link #tryAcquire(long)} throttles, it refuses a click when there already
+ * were {@code clicks} clicks in the window, which stops auto clickers on reward and
+ * action buttons. See {@link #autoClickGuard()}.</li>
+ * </ul>
+ *
+ * <p>
+ * Times come from the caller, normally {@link GameScheduler#millis()}, so the
+ * window follows a virtual clock too.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class ClickWindow {
+
+    // Most clicks a person can make on one button, anything faster is a program
+    public static final int MAX_CLICKS_PER_SECOND = 10;
+
+    private final long[] times; // ring buffer of click times, oldest at next once full
+    private final long windowMillis;
+    private int next; // slot of the next click
+    private int size; // number of clicks in the buffer
+
+    /**
+     * Creates a window.
+     *
+     * @param clicks       number of clicks the window holds, at least 1
+     * @param windowMillis length of the window in milliseconds, at least 1
+     */
+    public ClickWindow(int clicks, long windowMillis) {
+        if (clicks < 1 || windowMillis < 1) {
+            throw new IllegalArgumentException("a click window needs at least one click and one millisecond");
+        }
+        this.times = new long[clicks];
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Creates a throttle for one button that lets through at most
+     * MAX_CLICKS_PER_SECOND clicks per second.
+     *
+     * @return the window, use it with tryAcquire
+     */
+    public static ClickWindow autoClickGuard() {
+        return new ClickWindow(MAX_CLICKS_PER_SECOND, 1000);
+    }
+
+    /**
+     * Records a click and checks whether it completes a burst, meaning this click
+     * and the ones before it fill the window within its length. A completed burst is
+     * cleared, so the next one needs all of its clicks again.
+     *
+     * @param nowMillis time of the click
+     * @return true if the click completes a burst
+     */
+    public synchronized boolean record(long nowMillis) {
+        add(nowMillis);
+        if (size == times.length && nowMillis - times[next] < windowMillis) { // next is the oldest
+            clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lets a click through if fewer than the window's clicks were let through in the
+     * last window length. A refused click is not counted.
+     *
+     * @param nowMillis time of the click
+     * @return true if the click is allowed
+     */
+    public synchronized boolean tryAcquire(long nowMillis) {
+        if (size == times.length && nowMillis - times[next] < windowMillis) {
+            return false;
+        }
+        add(nowMillis);
+        return true;
+    }
+
+    /**
+     * Gets how many of the recorded clicks are still inside the window.
+     *
+     * @param nowMillis the current time
+     * @return the number of clicks
+     */
+    public synchronized int count(long nowMillis) {
+        int inside = 0;
+        for (int i = 1; i <= size; i++) {
+            if (nowMillis - times[(next - i + times.length) % times.length] < windowMillis) {
+                inside++;
+            } else {
+                break; // older clicks are further out
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Forgets every click.
+     */
+    public synchronized void clear() {
+        size = 0;
+        next = 0;
+    }
+
+    private void add(long nowMillis) {
+        times[next] = nowMillis;
+        next = (next + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package application.util;
+
+/**
+ * Virtual clock that runs as fast as possible.
+ *
+ * <p>
+ * Time jumps straight to the due time of the next timer, so the empty time between
+ * two events costs nothing. Simulating a week of pet life for many pets takes only
+ * as long as the decay ticks and other tasks themselves.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class FastForwardClock extends VirtualClock {
+
+    /**
+     * Creates a fast forward clock.
+     *
+     * @param startMillis time the clock starts at, in milliseconds since the epoch
+     */
+    public FastForwardClock(long startMillis) {
+        super(startMillis);
+    }
+
+    /**
+     * Runs the game for an amount of clock time, as fast as possible.
+     *
+     * @param durationMillis clock time to run for
+     */
+    public void runFor(long durationMillis) {
+        advanceTo(millis() + durationMillis, true);
+    }
+
+    /**
+     * Runs the game until the clock reaches a time, as fast as possible.
+     *
+     * @param targetMillis time to stop at, in milliseconds since the epoch
+     */
+    public void runUntil(long targetMillis) {
+        advanceTo(targetMillis, true);
+    }
+}
@@ -0,0 +1,53 @@
+package application.util;
+
+/**
+ * Virtual clock that moves by a fixed step each time {@link #step()} is called.
+ *
+ * <p>
+ * Timers that fall due inside a step run at the end of it, like a game loop with a
+ * fixed time step. Useful for deterministic tests that check the state after a
+ * known amount of game time.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class FixedStepClock extends VirtualClock {
+
+    private final long stepMillis;
+
+    /**
+     * Creates a fixed step clock.
+     *
+     * @param startMillis time the clock starts at, in milliseconds since the epoch
+     * @param stepMillis  length of one step in milliseconds
+     */
+    public FixedStepClock(long startMillis, long stepMillis) {
+        super(startMillis);
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("stepMillis must be greater than 0: " + stepMillis);
+        }
+        this.stepMillis = stepMillis;
+    }
+
+    /**
+     * Moves the clock forward by one step.
+     */
+    public void step() {
+        advanceTo(millis() + stepMillis, false);
+    }
+
+    /**
+     * Moves the clock forward by a number of steps.
+     *
+     * @param steps number of steps
+     */
+    public void step(long steps) {
+        for (long i = 0; i < steps; i++) {
+            step();
+        }
+    }
+
+    public long getStepMillis() {
+        return stepMillis;
+    }
+}
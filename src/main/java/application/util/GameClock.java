@@ -0,0 +1,64 @@
+package application.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Source of time for the game, together with the timers that run on it.
+ *
+ * <p>
+ * Time and timers always move together: stat decay, sleep recovery, cooldowns and
+ * parental checks all read the time from the clock installed in
+ * {@link GameScheduler} and schedule their work on the same clock. Swapping in a
+ * virtual clock therefore speeds up or freezes the whole game consistently.
+ * </p>
+ *
+ * <ul>
+ * <li>{@link RealTimeClock}: wall clock time, timers run on a background thread.
+ * This is what the game uses.</li>
+ * <li>{@link FixedStepClock}: time only moves when {@code step()} is called, by a
+ * fixed amount, and due timers run at the end of the step.</li>
+ * <li>{@link FastForwardClock}: time jumps straight from one due timer to the next,
+ * so a simulated week takes as long as the work done in it.</li>
+ * </ul>
+ *
+ * @author CS2212 Group 31
+ */
+public interface GameClock {
+
+    /**
+     * Gets the current time.
+     *
+     * @return milliseconds since the epoch, like System.currentTimeMillis()
+     */
+    long millis();
+
+    /**
+     * Runs a task once after a delay on this clock.
+     *
+     * @param task        the task to run
+     * @param delayMillis delay in clock milliseconds
+     * @return handle that can cancel the task
+     */
+    GameScheduler.ScheduledTask schedule(Runnable task, long delayMillis);
+
+    /**
+     * Runs a task repeatedly at a fixed rate on this clock until it is cancelled.
+     *
+     * @param task               the task to run
+     * @param initialDelayMillis delay before the first run, in clock milliseconds
+     * @param periodMillis       time between runs, in clock milliseconds
+     * @return handle that can cancel the task
+     */
+    GameScheduler.ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis);
+
+    /**
+     * Gets the current time as a local date and time in the system time zone.
+     *
+     * @return the current local date and time
+     */
+    default LocalDateTime localDateTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis()), ZoneId.systemDefault());
+    }
+}
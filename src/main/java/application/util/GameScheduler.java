@@ -0,0 +1,117 @@
+package application.util;
+
+/**
+ * Process-wide scheduler for delayed and repeating game tasks, and the game's clock.
+ *
+ * <p>
+ * All timed work in the game (sleep recovery, stat decay, cooldowns, ...) is meant
+ * to go through the single shared instance returned by {@link #shared()} instead of
+ * creating its own {@code Timer} or sleeping a thread, so that the number of
+ * threads stays constant no matter how many tasks are pending. The tasks live on
+ * a {@link HashedTimingWheel}, so scheduling and cancelling are O(1) and thousands
+ * of sessions, cooldowns and reward windows share one worker thread.
+ * </p>
+ *
+ * <p>
+ * Game code reads the time through {@link #millis()} as well, never from
+ * {@code System.currentTimeMillis()}, so that installing a virtual
+ * {@link GameClock} with {@link #setClock(GameClock)} runs the whole game on
+ * simulated time.
+ * </p>
+ *
+ * <p>
+ * Tasks run on the scheduler thread and must be short. Anything that touches the
+ * JavaFX scene graph has to hand off with {@code Platform.runLater}.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class GameScheduler {
+
+    private static final GameScheduler SHARED = new GameScheduler();
+
+    private volatile GameClock clock;
+
+    private GameScheduler() {
+        this.clock = new RealTimeClock("game-scheduler");
+    }
+
+    /**
+     * Gets the scheduler shared by the whole game.
+     *
+     * @return the shared GameScheduler
+     */
+    public static GameScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs a task once after a delay.
+     *
+     * @param task        the task to run
+     * @param delayMillis delay before running, in milliseconds
+     * @return handle that can cancel the task
+     */
+    public ScheduledTask schedule(Runnable task, long delayMillis) {
+        return clock.schedule(task, delayMillis);
+    }
+
+    /**
+     * Runs a task repeatedly at a fixed rate until it is cancelled.
+     *
+     * @param task               the task to run
+     * @param initialDelayMillis delay before the first run, in milliseconds
+     * @param periodMillis       time between runs, in milliseconds
+     * @return handle that can cancel the task
+     */
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        return clock.scheduleAtFixedRate(task, initialDelayMillis, periodMillis);
+    }
+
+    /**
+     * Gets the current game time.
+     *
+     * @return milliseconds since the epoch on the installed clock
+     */
+    public long millis() {
+        return clock.millis();
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Installs the clock the game runs on. Tasks scheduled before keep running on
+     * the old clock, so this is meant to be called before a game or simulation
+     * starts. On a {@link VirtualClock} the pet actors' mailboxes are drained on
+     * the thread that moves the clock, see {@link SerialExecutor}.
+     *
+     * @param clock the new clock
+     */
+    public void setClock(GameClock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("clock must not be null");
+        }
+        this.clock = clock;
+        SerialExecutor.drainInline(clock instanceof VirtualClock);
+    }
+
+    /**
+     * Handle to a task submitted to the scheduler.
+     */
+    public interface ScheduledTask {
+
+        /**
+         * Cancels the task. A task that is already running finishes its current run.
+         */
+        void cancel();
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return true if cancel() was called
+         */
+        boolean isCancelled();
+    }
+}
@@ -0,0 +1,273 @@
+package application.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Hashed timing wheel, the timer behind {@link GameScheduler}.
+ *
+ * <p>
+ * Time is cut into ticks of {@code tickMillis}. The wheel is a ring of buckets, one
+ * per tick, and a task is dropped into the bucket of the tick it is due in, along
+ * with the number of full turns of the wheel still to wait. Scheduling and
+ * cancelling are O(1): callers only push the task onto a lock-free queue, and the
+ * single worker thread moves it into its bucket on the next tick. Cancelled tasks
+ * are unlinked from their bucket in O(1) as well.
+ * </p>
+ *
+ * <p>
+ * One worker thread serves every task, so the thread count stays the same no matter
+ * how many timers are pending. Tasks run on that thread and must be short.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class HashedTimingWheel {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickMillis;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startNanos;
+    private final Thread worker;
+
+    private long tick; // only used by the worker thread
+
+    /**
+     * Creates and starts a timing wheel.
+     *
+     * @param tickMillis length of one tick, the precision of the timer
+     * @param ticksPerWheel number of buckets, rounded up to a power of two
+     * @param threadName name of the worker thread
+     */
+    public HashedTimingWheel(long tickMillis, int ticksPerWheel, String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be greater than 0: " + tickMillis);
+        }
+        int size = Integer.highestOneBit(Math.max(ticksPerWheel, 1) * 2 - 1);
+        this.tickMillis = tickMillis;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true); // allows the thread to exit when the application closes
+        this.worker.start();
+    }
+
+    /**
+     * Runs a task once after a delay.
+     *
+     * @param task the task to run
+     * @param delayMillis delay in milliseconds
+     * @return handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        return add(new Timeout(this, task, elapsedMillis() + Math.max(delayMillis, 0), 0));
+    }
+
+    /**
+     * Runs a task repeatedly at a fixed rate until it is cancelled.
+     *
+     * @param task the task to run
+     * @param initialDelayMillis delay before the first run, in milliseconds
+     * @param periodMillis time between runs, in milliseconds
+     * @return handle that can cancel the task
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be greater than 0: " + periodMillis);
+        }
+        return add(new Timeout(this, task, elapsedMillis() + Math.max(initialDelayMillis, 0), periodMillis));
+    }
+
+    private Timeout add(Timeout timeout) {
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    private void run() {
+        while (true) {
+            long deadline = waitForNextTick();
+            int index = (int) (tick & mask);
+            processCancelled();
+            transferPending();
+            wheel[index].expire(deadline);
+            tick++;
+        }
+    }
+
+    // Sleeps until the end of the current tick and returns that time
+    private long waitForNextTick() {
+        long deadline = tickMillis * (tick + 1);
+        while (true) {
+            long sleepMillis = deadline - elapsedMillis();
+            if (sleepMillis <= 0) {
+                return deadline;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                // The worker is never interrupted on purpose, just keep ticking
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                continue; // cancelled before it reached the wheel
+            }
+
+            long calculated = timeout.deadline / tickMillis;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick); // overdue tasks go in the current bucket
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * A scheduled task on the wheel.
+     */
+    public static final class Timeout implements GameScheduler.ScheduledTask {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater
+                .newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel timer;
+        private final Runnable task;
+        private final long period;
+        private long deadline; // millis since the wheel started
+        private long remainingRounds;
+        private volatile int state = ST_INIT;
+
+        // Bucket links, only touched by the worker thread
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedTimingWheel timer, Runnable task, long deadline, long period) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public void cancel() {
+            if (STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                timer.cancelledTimeouts.add(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        private void expire() {
+            if (period == 0 && !STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            if (period != 0 && state != ST_INIT) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                // A failing task must not kill the worker that runs every other timer
+                System.err.println("An unexpected error has occurred in a scheduled task: ");
+                t.printStackTrace();
+            }
+
+            if (period != 0 && state == ST_INIT) {
+                deadline += period; // fixed rate, next run is one period after the last due time
+                timer.pendingTimeouts.add(this);
+            }
+        }
+    }
+
+    // Doubly linked list of the timeouts that fall in one tick of the wheel
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return; // already removed
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
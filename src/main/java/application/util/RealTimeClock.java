@@ -0,0 +1,44 @@
+package application.util;
+
+/**
+ * Wall clock time, the clock the game normally runs on.
+ *
+ * <p>
+ * Timers live on a {@link HashedTimingWheel} with a single daemon worker thread,
+ * so scheduling and cancelling are O(1) however many timers are pending.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class RealTimeClock implements GameClock {
+
+    private static final long TICK_MILLIS = 10; // timer precision
+    private static final int TICKS_PER_WHEEL = 512; // one turn of the wheel is ~5 seconds
+
+    private final HashedTimingWheel wheel;
+
+    /**
+     * Creates a real time clock and starts its timer thread.
+     *
+     * @param threadName name of the timer thread
+     */
+    public RealTimeClock(String threadName) {
+        this.wheel = new HashedTimingWheel(TICK_MILLIS, TICKS_PER_WHEEL, threadName);
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public GameScheduler.ScheduledTask schedule(Runnable task, long delayMillis) {
+        return wheel.schedule(task, delayMillis);
+    }
+
+    @Override
+    public GameScheduler.ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelayMillis,
+            long periodMillis) {
+        return wheel.scheduleAtFixedRate(task, initialDelayMillis, periodMillis);
+    }
+}
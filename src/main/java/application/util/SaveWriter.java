@@ -0,0 +1,212 @@
+package application.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+import com.google.gson.Gson;
+
+/**
+ * Writes save files in the background without ever leaving a broken file.
+ *
+ * <p>
+ * {@link #saveBytes(Path, byte[])} takes content that was already encoded, e.g. by
+ * {@code SaveRepository} inside a pet's actor, and returns right away.
+ * {@link #saveLazily(Path, Supplier)} builds the content on the writer thread
+ * instead. A single background thread writes the content to a temporary file next
+ * to the target, forces it to disk and then renames it over the target in one
+ * atomic step. A crash leaves either the old file or the new one, never half of
+ * one.
+ * </p>
+ *
+ * <p>
+ * Saves to the same file that arrive before the previous one was written are
+ * coalesced: only the newest snapshot is written. Pending saves are flushed when
+ * the JVM shuts down. The returned futures carry the CRC32C of the bytes that
+ * were written, which the save slot index keeps to notice files changed behind
+ * its back.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class SaveWriter {
+
+    private static final Gson GSON = new Gson();
+    private static final SaveWriter SHARED = new SaveWriter();
+
+    private final Map<Path, Pending> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+
+    private SaveWriter() {
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-writer");
+            thread.setDaemon(true); // allows the thread to exit when the application closes
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "save-writer-flush"));
+    }
+
+    /**
+     * Gets the save writer shared by the whole game.
+     *
+     * @return the shared SaveWriter
+     */
+    public static SaveWriter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the Gson instance used for every save, Gson is thread safe.
+     *
+     * @return the shared Gson
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Saves already encoded content in the background, e.g. a binary save.
+     *
+     * @param target  the file to write
+     * @param content the new file content, must not be changed afterwards
+     * @return future completed with the checksum once the file (or a newer save of
+     *         it) is on disk
+     */
+    public CompletableFuture<Long> saveBytes(Path target, byte[] content) {
+        return enqueue(target, () -> content);
+    }
+
+    /**
+     * Saves content that is only produced when the write happens, so a burst of
+     * saves of a large file builds its content once. The supplier runs on the
+     * writer thread and must take its own snapshot.
+     *
+     * @param target  the file to write
+     * @param content produces the new file content
+     * @return future completed with the checksum once the file (or a newer save of
+     *         it) is on disk
+     */
+    public CompletableFuture<Long> saveLazily(Path target, Supplier<byte[]> content) {
+        return enqueue(target, content);
+    }
+
+    private CompletableFuture<Long> enqueue(Path target, Supplier<byte[]> snapshot) {
+        Path key = target.toAbsolutePath().normalize();
+
+        boolean[] queued = { false };
+        Pending entry = pending.compute(key, (path, previous) -> {
+            if (previous == null) {
+                queued[0] = true;
+                return new Pending(snapshot);
+            }
+            previous.snapshot = snapshot; // not written yet, the newest snapshot wins
+            return previous;
+        });
+
+        if (queued[0]) {
+            writer.execute(() -> write(key));
+        }
+        return entry.done;
+    }
+
+    /**
+     * Writes every pending save now, on the calling thread. Waits for a write the
+     * background thread is in the middle of.
+     */
+    public synchronized void flush() {
+        for (Path path : pending.keySet()) {
+            write(path);
+        }
+    }
+
+    /**
+     * Writes the pending save of one file now, if there is one, so that reading the
+     * file right after a save sees the new content.
+     *
+     * @param target the file about to be read
+     */
+    public void flush(Path target) {
+        write(target.toAbsolutePath().normalize());
+    }
+
+    // One write at a time, flush() and the background thread share the temp files
+    private synchronized void write(Path target) {
+        Pending entry = pending.remove(target);
+        if (entry == null) {
+            return; // already written by flush()
+        }
+
+        try {
+            byte[] bytes = entry.snapshot.get();
+            writeAtomically(target, bytes);
+            System.out.println("Game saved to " + target);
+            entry.done.complete(checksum(bytes));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error saving game: " + e.getMessage());
+            entry.done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Replaces a file with new content so that it is never seen half written.
+     *
+     * @param target the file to replace
+     * @param bytes  the new content
+     * @throws IOException if the file could not be written
+     */
+    public static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent); // Ensure directory exists
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true); // on disk before the rename makes it visible
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Computes the checksum the futures of this writer complete with.
+     *
+     * @param bytes file content
+     * @return the CRC32C of the content
+     */
+    public static long checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    private static final class Pending {
+        private volatile Supplier<byte[]> snapshot;
+        private final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        private Pending(Supplier<byte[]> snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package application.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mailbox that runs its commands one at a time, in the order they were sent.
+ *
+ * <p>
+ * Any number of threads can send commands; they go onto a lock-free queue. The
+ * first command sent to an idle mailbox hands the mailbox to a worker pool, and
+ * the worker drains it. Only one worker ever drains a given mailbox at a time,
+ * so whatever the commands touch has a single writer and needs no locks. Many
+ * mailboxes share the same small pool. A mailbox gives its worker back after
+ * {@link #BATCH_SIZE} commands, so a busy mailbox cannot starve the others.
+ * </p>
+ *
+ * <p>
+ * While the game runs on a {@link VirtualClock} the shared mailboxes are drained
+ * on the sender's thread instead, so the commands a timer sends have all run by
+ * the time the clock's step returns.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class SerialExecutor implements Executor {
+
+    public static final int BATCH_SIZE = 64;
+
+    private static final ExecutorService SHARED_POOL = createPool();
+    private static final Executor CALLER = Runnable::run;
+
+    private static volatile boolean inline; // drain on the sender's thread, see drainInline()
+    private static final Executor SHARED_WORKERS = drain -> (inline ? CALLER : SHARED_POOL).execute(drain);
+
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor pool;
+
+    /**
+     * Creates a mailbox drained by the shared worker pool, or on the sender's thread
+     * while a virtual clock is installed.
+     */
+    public SerialExecutor() {
+        this(SHARED_WORKERS);
+    }
+
+    /**
+     * Creates a mailbox drained by the given executor.
+     *
+     * @param pool runs the drain tasks, e.g. Runnable::run to drain on the sender's thread
+     */
+    public SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Sends a command. Returns right away, the command runs later on a worker.
+     *
+     * @param command the command
+     */
+    @Override
+    public void execute(Runnable command) {
+        mailbox.add(command);
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    // Set by GameScheduler.setClock(). Mailboxes already handed to a worker finish
+    // there, so it is switched before a game or simulation starts
+    static void drainInline(boolean onSender) {
+        inline = onSender;
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Runnable command = mailbox.poll();
+            if (command == null) {
+                break;
+            }
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                // A failing command must not block the ones behind it
+                System.err.println("An unexpected error has occurred in a command: ");
+                e.printStackTrace();
+            }
+        }
+
+        scheduled.set(false);
+        // Commands sent after the last poll, or left over after a full batch
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private static ExecutorService createPool() {
+        AtomicInteger count = new AtomicInteger();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pet-worker-" + count.incrementAndGet());
+            thread.setDaemon(true); // allows the thread to exit when the application closes
+            return thread;
+        });
+    }
+}
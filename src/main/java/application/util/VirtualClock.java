@@ -0,0 +1,158 @@
+package application.util;
+
+import java.util.PriorityQueue;
+
+/**
+ * Base of the clocks whose time only moves when the caller says so.
+ *
+ * <p>
+ * Timers sit in a priority queue ordered by due time (ties run in the order they
+ * were scheduled, so runs are deterministic) and are run on the thread that moves
+ * the clock forward. No background thread is involved: once installed with
+ * {@link GameScheduler#setClock(GameClock)}, the commands timers send to a pet's
+ * actor run on that thread too, so a step has applied them when it returns.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public abstract class VirtualClock implements GameClock {
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private volatile long now;
+    private long sequence;
+
+    /**
+     * Creates a virtual clock.
+     *
+     * @param startMillis time the clock starts at, in milliseconds since the epoch
+     */
+    protected VirtualClock(long startMillis) {
+        this.now = startMillis;
+    }
+
+    @Override
+    public long millis() {
+        return now;
+    }
+
+    @Override
+    public GameScheduler.ScheduledTask schedule(Runnable task, long delayMillis) {
+        return add(task, delayMillis, 0);
+    }
+
+    @Override
+    public GameScheduler.ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelayMillis,
+            long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be greater than 0: " + periodMillis);
+        }
+        return add(task, initialDelayMillis, periodMillis);
+    }
+
+    private synchronized Task add(Runnable runnable, long delayMillis, long periodMillis) {
+        Task task = new Task(runnable, now + Math.max(delayMillis, 0), periodMillis, sequence++);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Gets the number of timers waiting to run, cancelled ones included.
+     *
+     * @return number of pending timers
+     */
+    public synchronized int getPendingCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Gets the due time of the next timer.
+     *
+     * @return time in milliseconds, or Long.MAX_VALUE if nothing is scheduled
+     */
+    public synchronized long nextDeadline() {
+        Task head = tasks.peek();
+        return head == null ? Long.MAX_VALUE : head.deadline;
+    }
+
+    /**
+     * Moves the clock to a time, running every timer due until then in order.
+     *
+     * @param targetMillis the time to move to, ignored if in the past
+     * @param jump         true to set the time to each timer's due time before it
+     *                     runs, false to move to the target first and run all due
+     *                     timers at the target time
+     */
+    protected void advanceTo(long targetMillis, boolean jump) {
+        if (targetMillis <= now) {
+            return;
+        }
+        if (!jump) {
+            now = targetMillis;
+        }
+
+        while (true) {
+            Task task;
+            synchronized (this) {
+                task = tasks.peek();
+                if (task == null || task.deadline > targetMillis) {
+                    break;
+                }
+                tasks.poll();
+                if (task.cancelled) {
+                    continue;
+                }
+                if (jump) {
+                    now = Math.max(now, task.deadline);
+                }
+            }
+
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                // Same as the real clock, one failing task must not stop the others
+                System.err.println("An unexpected error has occurred in a scheduled task: ");
+                e.printStackTrace();
+            }
+
+            if (task.period != 0 && !task.cancelled) {
+                synchronized (this) {
+                    task.deadline += task.period;
+                    task.sequence = sequence++;
+                    tasks.add(task);
+                }
+            }
+        }
+        now = targetMillis;
+    }
+
+    private static final class Task implements GameScheduler.ScheduledTask, Comparable<Task> {
+        private final Runnable runnable;
+        private final long period;
+        private long deadline;
+        private long sequence;
+        private volatile boolean cancelled;
+
+        private Task(Runnable runnable, long deadline, long period, long sequence) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+            this.period = period;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true; // dropped when it reaches the head of the queue
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -2,7 +2,7 @@ package application.view;
 
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 import application.GameLauncher;
@@ -12,7 +12,10 @@ import application.components.StatModal;
 import application.controllers.FeedbackController;
 import application.controllers.GameplayController;
 import application.model.GameState;
+import application.model.Inventory;
 import application.model.Pet;
+import application.model.Player;
+import application.util.GameScheduler;
 import javafx.geometry.Pos;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -32,8 +35,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import application.components.InventoryModal;
 import application.components.PauseModal;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class GameplayScreen {
 
@@ -55,9 +56,21 @@ public class GameplayScreen {
     private Text scoreText;
     private int score = 0;
     private ImageView petImageView;
+    private Image shownSprite; // sprite currently in petImageView, swapped only when the state changes
     private FeedbackController feedbackController;
     private GameState gameState;
-    private Timer periodicUpdateTimer;
+    // Model changes waiting to be drawn, one Platform.runLater covers all of them
+    private static final int DIRTY_PET = 1;
+    private static final int DIRTY_PLAYER = 2;
+    private static final int DIRTY_INVENTORY = 4;
+    private final AtomicInteger dirty = new AtomicInteger();
+    private final Runnable onPetChanged = () -> markDirty(DIRTY_PET);
+    private final Runnable onPlayerChanged = () -> markDirty(DIRTY_PLAYER);
+    private final Runnable onInventoryChanged = () -> markDirty(DIRTY_INVENTORY);
+    private Player watchedPlayer;
+    private Pet watchedPet;
+    private Inventory watchedInventory;
+    private GameScheduler.ScheduledTask spriteMirrorTask;
     private boolean isPetConfirmed = false;
     private Button pauseButton;
     private PauseModal pauseModal;
@@ -68,12 +81,12 @@ public class GameplayScreen {
         this.gameLauncher = gameLauncher;
         this.feedbackController = feedbackController;
         this.gameState = gameState;
-        this.controller = controller;
-
-        // Initialize GameplayController with GameState
-        this.controller = new GameplayController(gameState);
+        // Use the launcher's controller, only build one if none was passed
+        this.controller = controller != null ? controller : new GameplayController(gameState);
         this.inventoryModal = new InventoryModal(gameState, feedbackController);
-        controller.setOnInventoryUpdated(() -> inventoryModal.refreshInventoryPage());
+        // Fired when the pet is predicted to cross a threshold, on the scheduler thread
+        this.controller.setOnPetStateUpdated(() -> markDirty(DIRTY_PET));
+        this.controller.setOnPetWarning(() -> Platform.runLater(() -> feedbackController.playSoundEffect("warning")));
 
         this.petName = petName;
 
@@ -83,7 +96,7 @@ public class GameplayScreen {
         if (gameState.getPlayer().getCurrentPet() != null &&
                 gameState.getPlayer().getCurrentPet().getName() != null) {
             isPetConfirmed = true;
-            controller.startStatDecay();
+            this.controller.startStatDecay();
         }
     }
 
@@ -167,7 +180,7 @@ public class GameplayScreen {
         settingsModal = new SettingsModal(feedbackController);
 
         pauseModal = new PauseModal(feedbackController, controller);
-        statModal = new StatModal(controller, inventoryModal, feedbackController);
+        statModal = new StatModal(controller, feedbackController);
         inventoryModal = new InventoryModal(gameState, feedbackController);
 
         // Add modals to the layered layout
@@ -188,7 +201,7 @@ public class GameplayScreen {
             toggleUIElementsVisibility(true);
         }
 
-        startPeriodicUpdates();
+        startModelUpdates();
 
         root.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.ESCAPE) {
@@ -297,12 +310,9 @@ public class GameplayScreen {
 
         // Load the image from the "sprite states" folder
         String imagePath = String.format("/sprite states/pet%d/normal-state.png", number); // Adjusted path
-        Image petImage;
-        try {
-            petImage = new Image(getClass().getResourceAsStream(imagePath));
-        } catch (Exception e) {
-            System.out.println("Error loading image for pet " + number + ": " + e.getMessage());
-            petImage = new Image(getClass().getResourceAsStream("/default.png")); // Fallback image
+        Image petImage = SpriteCache.get(number, "normal"); // decoded once, shared
+        if (petImage == null) {
+            System.out.println("Error loading image for pet " + number + ": " + imagePath);
         }
         ImageView petImageView = new ImageView(petImage);
         petImageView.setFitWidth(200);
@@ -487,8 +497,12 @@ public class GameplayScreen {
         // Load the selected pet's image dynamically
         try {
             String imagePath = String.format("/sprite states/pet%d/normal-state.png", petType, petState);
-            Image petImage = new Image(getClass().getResourceAsStream(imagePath)); // Dynamically set path
+            Image petImage = SpriteCache.get(petType, "normal"); // Shared image from the sprite cache
+            if (petImage == null) {
+                throw new IllegalArgumentException(imagePath);
+            }
             petImageView = new ImageView(petImage);
+            shownSprite = petImage;
             petImageView.setFitWidth(500);
             petImageView.setFitHeight(800);
             petImageView.setPreserveRatio(true);
@@ -520,20 +534,19 @@ public class GameplayScreen {
             return;
         }
 
-        new Thread(() -> {
-            while (true) { // Infinite loop to keep the mirroring active
-                try {
-                    Thread.sleep(3700); // Wait for 3.7 sec
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-
-                Platform.runLater(() -> {
-                    // Toggle scaleX to mirror the image
-                    petImageView.setScaleX(petImageView.getScaleX() == 1 ? -1 : 1);
-                });
-            }
-        }).start();
+        stopSpriteMirroring();
+        // Mirror every 3.7 sec on the shared scheduler until the screen is left
+        spriteMirrorTask = GameScheduler.shared().scheduleAtFixedRate(() -> Platform.runLater(() -> {
+            // Toggle scaleX to mirror the image
+            petImageView.setScaleX(petImageView.getScaleX() == 1 ? -1 : 1);
+        }), 3700, 3700);
+    }
+
+    private void stopSpriteMirroring() {
+        if (spriteMirrorTask != null) {
+            spriteMirrorTask.cancel();
+            spriteMirrorTask = null;
+        }
     }
 
     private StackPane createStatsContainer() {
@@ -692,13 +705,12 @@ public class GameplayScreen {
         pauseButton.setOnAction(e -> {
             System.out.println("Pause button clicked!");
 
-            // Stop music and periodic updates
+            // Stop music and stat decay
             if (feedbackController != null) {
                 feedbackController.stopBackgroundMusic();
             }
             if (controller != null) {
-                controller.stopStatDecay();
-                stopPeriodicUpdates();
+                controller.stopStatDecay(); // the stats stop changing, so the screen stops redrawing
             }
 
             // Show the pause modal
@@ -732,11 +744,8 @@ public class GameplayScreen {
             gameLauncher.showGlobalModal("Game saving!");
 
             // Delay navigation to the main menu by 2 seconds to show saving.
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    Platform.runLater(() -> returnToMainMenu()); // Navigate back to the main menu
-                }
+            GameScheduler.shared().schedule(() -> {
+                Platform.runLater(() -> returnToMainMenu()); // Navigate back to the main menu
             }, 1700); // Delay for 1.8 sec
         });
 
@@ -770,30 +779,83 @@ public class GameplayScreen {
         return inventoryButton;
     }
 
-    private void startPeriodicUpdates() {
-        stopPeriodicUpdates(); // Stop any existing timer before starting a new one
-
-        periodicUpdateTimer = new Timer(true); // Create a new daemon timer
-        periodicUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    if (isPetConfirmed) {
-                        refreshPetStats();
-                        refreshPlayerInfo();
-                        refreshInventory();
-                        updatePetSprite();
-                    }
-                });
+    // Redraws only when the player, pet or inventory report a change, instead of
+    // re-reading everything every second
+    private void startModelUpdates() {
+        stopModelUpdates(); // Stop listening to the old objects before listening again
+
+        watchedPlayer = gameState.getPlayer();
+        watchedPlayer.addChangeListener(onPlayerChanged);
+        watchModelChildren();
+        markDirty(DIRTY_PET | DIRTY_PLAYER | DIRTY_INVENTORY); // first draw
+    }
+
+    // Follows the player's current pet and inventory, they can be replaced
+    private void watchModelChildren() {
+        Pet pet = watchedPlayer.getCurrentPet();
+        if (pet != watchedPet) {
+            if (watchedPet != null) {
+                watchedPet.removeChangeListener(onPetChanged);
             }
-        }, 0, 1000); // Refresh every 1 second
+            watchedPet = pet;
+            if (pet != null) {
+                pet.addChangeListener(onPetChanged);
+            }
+        }
+
+        Inventory inventory = watchedPlayer.getInventory();
+        if (inventory != watchedInventory) {
+            if (watchedInventory != null) {
+                watchedInventory.removeChangeListener(onInventoryChanged);
+            }
+            watchedInventory = inventory;
+            if (inventory != null) {
+                inventory.addChangeListener(onInventoryChanged);
+            }
+        }
     }
 
-    public void stopPeriodicUpdates() {
-        if (periodicUpdateTimer != null) {
-            periodicUpdateTimer.cancel(); // Cancel the timer
-            periodicUpdateTimer = null;
-            System.out.println("Periodic updates stopped.");
+    public void stopModelUpdates() {
+        if (watchedPlayer == null) {
+            return;
+        }
+        watchedPlayer.removeChangeListener(onPlayerChanged);
+        if (watchedPet != null) {
+            watchedPet.removeChangeListener(onPetChanged);
+        }
+        if (watchedInventory != null) {
+            watchedInventory.removeChangeListener(onInventoryChanged);
+        }
+        watchedPlayer = null;
+        watchedPet = null;
+        watchedInventory = null;
+        System.out.println("Model updates stopped.");
+    }
+
+    // Called on whatever thread changed the model. Only the first change since the
+    // last redraw posts to the FX thread, later ones just add their flag.
+    private void markDirty(int flags) {
+        if (dirty.getAndAccumulate(flags, (current, added) -> current | added) == 0) {
+            Platform.runLater(this::redraw);
+        }
+    }
+
+    private void redraw() {
+        int flags = dirty.getAndSet(0);
+        if (!isPetConfirmed || watchedPlayer == null) {
+            return;
+        }
+
+        if ((flags & DIRTY_PLAYER) != 0) {
+            watchModelChildren();
+            refreshPlayerInfo();
+        }
+        if ((flags & DIRTY_PET) != 0) {
+            refreshPetStats();
+            updatePetSprite();
+        }
+        if ((flags & DIRTY_INVENTORY) != 0) {
+            refreshInventory();
         }
     }
 
@@ -825,11 +887,6 @@ public class GameplayScreen {
         int playerScore = controller.getPlayerScore();
 
         // Update UI elements
-        Label playerNameLabel = (Label) root.lookup("#playerNameLabel");
-        if (playerNameLabel != null) {
-            playerNameLabel.setText("Player: " + playerName);
-        }
-
         if (scoreText != null) {
             scoreText.setText("Score: " + playerScore);
         } else {
@@ -845,16 +902,7 @@ public class GameplayScreen {
         // Retrieve inventory summary from the controller
         Map<String, Integer> inventorySummary = controller.getInventorySummary();
 
-        Label foodItemsLabel = (Label) root.lookup("#foodItemsLabel");
-        Label giftItemsLabel = (Label) root.lookup("#giftItemsLabel");
-
-        if (foodItemsLabel != null) {
-            foodItemsLabel.setText("Food Items: " + inventorySummary.getOrDefault("Food Items", 0));
-        }
-
-        if (giftItemsLabel != null) {
-            giftItemsLabel.setText("Gift Items: " + inventorySummary.getOrDefault("Gift Items", 0));
-        }
+        inventoryModal.refreshInventoryPage();
 
         System.out.println("Inventory refreshed: Food Items=" + inventorySummary.get("Food Items") +
                 ", Gift Items=" + inventorySummary.get("Gift Items"));
@@ -865,14 +913,14 @@ public class GameplayScreen {
             int petType = gameState.getPlayer().getCurrentPet().getPetType();
             String state = controller.getPetMainState();
 
-            try {
-                String imagePath = String.format("/sprite states/pet%d/%s-state.png", petType, state);
-                System.out.println("Loading image: " + imagePath);
-
-                Image petImage = new Image(getClass().getResourceAsStream(imagePath));
+            Image petImage = SpriteCache.get(petType, state);
+            if (petImage == null) {
+                System.err.println("Failed to load image for pet sprite: pet" + petType + " " + state);
+            } else if (petImage != shownSprite && petImageView != null) {
+                // Only swap when the state actually changed, the images are shared
+                System.out.println("Showing sprite: pet" + petType + " " + state);
                 petImageView.setImage(petImage);
-            } catch (Exception e) {
-                System.err.println("Failed to load image for pet sprite: " + e.getMessage());
+                shownSprite = petImage;
             }
         } else {
             System.err.println("Pet is null, cannot update sprite.");
@@ -902,7 +950,8 @@ public class GameplayScreen {
     }
 
     private void returnToMainMenu() {
-        stopPeriodicUpdates();
+        stopModelUpdates();
+        stopSpriteMirroring();
         controller.stopGameplay();
         gameLauncher.showMainMenu();
         stopMusic();
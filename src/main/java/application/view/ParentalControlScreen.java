@@ -2,15 +2,22 @@ package application.view;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import application.GameLauncher;
 import application.controllers.ParentalControlController;
+import application.model.BinarySaveCodec;
+import application.model.GameState;
+import application.model.Pet;
+import application.model.SaveRepository;
+import application.model.SaveSlotIndex;
+import application.util.GameScheduler;
+import application.util.SaveWriter;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -48,6 +55,11 @@ public class ParentalControlScreen {
     /** Stores the selected hours for time restrictions. */
     private Set<Integer> selectedHours = new HashSet<>();
 
+    /** Number of saves listed at a time in the pet revival view. */
+    private static final int SAVES_PER_PAGE = 5;
+    /** The page of saves shown in the pet revival view, from 0. */
+    private int revivalPage;
+
 
     /**
      * Constructs a ParentalControlScreen with the specified game launcher, stage, and controller.
@@ -434,7 +446,7 @@ public class ParentalControlScreen {
 
     /**
      * Creates the Stats section of the parental controls, displaying gameplay statistics.
-     * calculates total time and average session time by dividing time by number of sessions
+     * shows total time, average session time and the time played today and this week
      * implements the reset button
      * @return the VBox containing the Stats section
      */
@@ -444,16 +456,9 @@ public class ParentalControlScreen {
         statsView.setPadding(new Insets(30));
         statsView.setAlignment(Pos.TOP_CENTER);
 
+        // from the play session log's running totals, no history is read
         int totalTimePlayed = controller.getTotalTimePlayed();
-        int numberOfLaunches = controller.getNumberOfLaunches();
-
-        // calculate average session time
-        int averageSessionTime;
-        if (numberOfLaunches > 0) {
-            averageSessionTime = totalTimePlayed / numberOfLaunches;
-        } else {
-            averageSessionTime = 0;
-        }
+        int averageSessionTime = controller.getAverageSessionMinutes();
 
         String totalTimePlayedStr = String.format("%d Minutes", totalTimePlayed);
         String averageSessionTimeStr = String.format("%d Minutes", averageSessionTime);
@@ -482,6 +487,11 @@ public class ParentalControlScreen {
 
         avgPlayTimeContainer.getChildren().addAll(avgPlayTimeHeader, avgPlayTimeSubheading);
 
+        // Today and This Week
+        Label recentPlayTimeLabel = new Label(String.format("Today: %d Minutes    This Week: %d Minutes",
+                controller.getMinutesPlayedToday(), controller.getMinutesPlayedThisWeek()));
+        recentPlayTimeLabel.setStyle("-fx-font-size: 18; -fx-text-fill: gray;");
+
         // Reset Stats Button
         Button resetStatsButton = new Button("Reset");
         resetStatsButton.setStyle(
@@ -496,10 +506,12 @@ public class ParentalControlScreen {
 
             totalPlayTimeHeader.setText("0 Hours");
             avgPlayTimeHeader.setText("0 Hours");
+            recentPlayTimeLabel.setText("Today: 0 Minutes    This Week: 0 Minutes");
         });
 
         // Add components to the main view with increased spacing
-        statsView.getChildren().addAll(totalPlayTimeContainer, avgPlayTimeContainer, resetStatsButton);
+        statsView.getChildren().addAll(totalPlayTimeContainer, avgPlayTimeContainer, recentPlayTimeLabel,
+                resetStatsButton);
         return statsView;
     }
 
@@ -522,106 +534,149 @@ public class ParentalControlScreen {
         VBox petList = new VBox(20);
         petList.setAlignment(Pos.CENTER);
 
-        // Array of save files
-        String[] saveFiles = { "save1.JSON", "save2.JSON", "save3.JSON" };
-
-        // Loop through each save file and create a corresponding row
-        for (String saveFile : saveFiles) {
-            HBox saveContainer = new HBox(15);
-            saveContainer.setPadding(new Insets(10));
-            saveContainer.setAlignment(Pos.CENTER_LEFT);
-            saveContainer.setStyle(
-                    "-fx-background-color: #f0f0f0; -fx-border-radius: 30; -fx-background-radius: 30;");
-
-            // Save Slot Label
-            Label saveSlotLabel = new Label(saveFile.replace(".JSON", "").toUpperCase());
-            saveSlotLabel.setStyle("-fx-font-size: 16; -fx-font-weight: bold; -fx-text-fill: black;");
-
-            // Health Status Label
-            Label healthStatusLabel = new Label();
-            healthStatusLabel.setStyle("-fx-font-size: 14; -fx-text-fill: black;");
-
-            // Pet Name Label
-            Label petNameLabel = new Label();
-            petNameLabel.setStyle("-fx-font-size: 14; -fx-text-fill: black;");
-
-            // Heart Button for revival
-            Label reviveHeart = new Label("\u2764");
-            reviveHeart.setFont(Font.font("Arial", 28));
-            reviveHeart.setStyle("-fx-text-fill: red; -fx-cursor: hand;");
-            reviveHeart.setVisible(false);
-
-            // Check the health status from the JSON file
-            try {
-                File file = new File("saves/" + saveFile);
-                System.out.println("Checking file: " + file.getAbsolutePath());
-                if (file.exists()) {
-                    String json = new String(Files.readAllBytes(Paths.get(file.getPath())));
-                    JSONObject jsonObject = new JSONObject(json);
-                    JSONObject player = jsonObject.getJSONObject("player");
-                    JSONObject currentPet = player.getJSONObject("currentPet");
-
-                    int health = currentPet.getInt("health");
-                    String petName = currentPet.getString("name");
-
-                    petNameLabel.setText("Pet: " + petName);
-
-                    if (health > 0) {
-                        healthStatusLabel.setText("Your pet is healthy");
-                    } else {
-                        healthStatusLabel.setText("Dead pet");
-                        reviveHeart.setVisible(true); // Show heart button for dead pets
-                    }
-
-                    // Revive action
-                    reviveHeart.setOnMouseClicked(e -> {
-                        revivePet(file);
-                        healthStatusLabel.setText("Your pet is healthy");
-                        reviveHeart.setVisible(false); // Hide the revive button
-                    });
-                } else {
-                    healthStatusLabel.setText("Empty Slot");
-                    petNameLabel.setText("Pet: unnamed");
-                }
-            } catch (Exception e) {
-                healthStatusLabel.setText("Empty Slot");
-                petNameLabel.setText("Pet: unnamed");
-                System.err.println("Error reading save file " + saveFile + ": " + e.getMessage());
-            }
+        // Buttons to page through the saves
+        Button previousButton = new Button("Previous");
+        Button nextButton = new Button("Next");
+        previousButton.setOnAction(e -> showRevivalPage(petList, previousButton, nextButton, revivalPage - 1));
+        nextButton.setOnAction(e -> showRevivalPage(petList, previousButton, nextButton, revivalPage + 1));
+        showRevivalPage(petList, previousButton, nextButton, revivalPage);
 
-            // Add components to the save container
-            saveContainer.getChildren().addAll(saveSlotLabel, petNameLabel, healthStatusLabel, reviveHeart);
-
-            // Add the save container to the list
-            petList.getChildren().add(saveContainer);
-        }
+        HBox pageButtons = new HBox(20, previousButton, nextButton);
+        pageButtons.setAlignment(Pos.CENTER);
 
         // Add components to the pet revival view
-        petRevivalView.getChildren().addAll(petStatusLabel, petList);
+        petRevivalView.getChildren().addAll(petStatusLabel, petList, pageButtons);
         return petRevivalView;
     }
 
     /**
-     * Revives a pet by updating its attributes in the specified save file.
+     * Fills the pet list with one page of saves. The rows come from the save
+     * repository's index, no save file is read here.
+     *
+     * @param petList        the list to fill
+     * @param previousButton button to the previous page
+     * @param nextButton     button to the next page
+     * @param page           the page to show, from 0
+     */
+    private void showRevivalPage(VBox petList, Button previousButton, Button nextButton, int page) {
+        revivalPage = page;
+        petList.getChildren().clear();
+
+        SaveRepository repository = SaveRepository.shared();
+        for (SaveSlotIndex.Entry entry : repository.list(page * SAVES_PER_PAGE, SAVES_PER_PAGE)) {
+            petList.getChildren().add(createSaveRow(entry));
+        }
+        if (petList.getChildren().isEmpty()) {
+            Label noSaves = new Label("No saved games");
+            noSaves.setStyle("-fx-font-size: 14; -fx-text-fill: black;");
+            petList.getChildren().add(noSaves);
+        }
+
+        previousButton.setDisable(page == 0);
+        nextButton.setDisable((page + 1) * SAVES_PER_PAGE >= repository.count());
+    }
+
+    /**
+     * Creates the row of one save, with a heart to revive its pet if it died.
      *
-     * @param file the save file containing the pet data
+     * @param entry the summary of the save
+     * @return the HBox of the row
      */
+    private HBox createSaveRow(SaveSlotIndex.Entry entry) {
+        HBox saveContainer = new HBox(15);
+        saveContainer.setPadding(new Insets(10));
+        saveContainer.setAlignment(Pos.CENTER_LEFT);
+        saveContainer.setStyle(
+                "-fx-background-color: #f0f0f0; -fx-border-radius: 30; -fx-background-radius: 30;");
+
+        // Save Slot Label
+        Label saveSlotLabel = new Label("SAVE" + entry.getSlot());
+        saveSlotLabel.setStyle("-fx-font-size: 16; -fx-font-weight: bold; -fx-text-fill: black;");
+
+        // Health Status Label
+        Label healthStatusLabel = new Label();
+        healthStatusLabel.setStyle("-fx-font-size: 14; -fx-text-fill: black;");
+
+        // Pet Name Label
+        Label petNameLabel = new Label();
+        petNameLabel.setStyle("-fx-font-size: 14; -fx-text-fill: black;");
+
+        // Heart Button for revival
+        Label reviveHeart = new Label("\u2764");
+        reviveHeart.setFont(Font.font("Arial", 28));
+        reviveHeart.setStyle("-fx-text-fill: red; -fx-cursor: hand;");
+        reviveHeart.setVisible(false);
+
+        // Check the health status from the slot index
+        if (entry.hasPet()) {
+            petNameLabel.setText("Pet: " + entry.getName());
+
+            if (entry.getHealth() > 0) {
+                healthStatusLabel.setText("Your pet is healthy");
+            } else {
+                healthStatusLabel.setText("Dead pet");
+                reviveHeart.setVisible(true); // Show heart button for dead pets
+            }
 
-    private void revivePet(File file) {
+            // Revive action
+            reviveHeart.setOnMouseClicked(e -> {
+                revivePet(entry.getSlot());
+                healthStatusLabel.setText("Your pet is healthy");
+                reviveHeart.setVisible(false); // Hide the revive button
+            });
+        } else {
+            healthStatusLabel.setText("Empty Slot");
+            petNameLabel.setText("Pet: unnamed");
+        }
+
+        // Add components to the save container
+        saveContainer.getChildren().addAll(saveSlotLabel, petNameLabel, healthStatusLabel, reviveHeart);
+        return saveContainer;
+    }
+
+    /**
+     * Revives a pet by updating its attributes in the save file of a slot.
+     *
+     * @param slot the save slot containing the pet data
+     */
+
+    private void revivePet(int slot) {
+        SaveWriter.shared().flush(SaveRepository.pathOf(slot)); // so a queued save cannot undo the revive
+        File file = SaveRepository.savedPathOf(slot).toFile(); // .json or .mpet
         try {
-            String json = new String(Files.readAllBytes(file.toPath()));
-            JSONObject jsonObject = new JSONObject(json);
-            JSONObject player = jsonObject.getJSONObject("player");
-            JSONObject currentPet = player.getJSONObject("currentPet");
+            byte[] content = Files.readAllBytes(file.toPath());
+            // Decay starts over from now and the pet loses its old states (dead,
+            // hungry, ...), otherwise the next load would fast forward from the time
+            // the pet died and kill it again
+            long now = GameScheduler.shared().millis();
+            byte[] revived;
+            if (BinarySaveCodec.isBinary(content)) {
+                GameState gameState = BinarySaveCodec.decode(content);
+                Pet pet = gameState.getPlayer().getCurrentPet();
+                if (pet == null) {
+                    return;
+                }
+                pet.revive();
+                gameState.setLastTickMillis(now);
+                revived = BinarySaveCodec.encode(gameState);
+            } else {
+                JSONObject jsonObject = new JSONObject(new String(content));
+                JSONObject player = jsonObject.getJSONObject("player");
+                JSONObject currentPet = player.getJSONObject("currentPet");
 
-            if (currentPet != null) {
                 currentPet.put("health", 100);
                 currentPet.put("sleep", 100);
                 currentPet.put("fullness", 100);
                 currentPet.put("happiness", 100);
-                Files.write(file.toPath(), jsonObject.toString(4).getBytes());
-                System.out.println("Revived pet in " + file.getName());
+                currentPet.put("currentPetStates", new JSONArray());
+                jsonObject.put("lastTickMillis", now);
+                revived = jsonObject.toString(4).getBytes();
             }
+
+            SaveWriter.writeAtomically(file.toPath(), revived); // never half written
+            SaveSlotIndex.shared().refresh(slot, revived, GameState.fromBytes(revived));
+            SaveRepository.shared().evict(slot); // the next load reads the revived pet
+            System.out.println("Revived pet in " + file.getName());
         } catch (Exception e) {
             System.err.println("Failed to revive pet in " + file.getName() + ": " + e.getMessage());
         }
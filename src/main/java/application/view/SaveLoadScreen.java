@@ -3,6 +3,8 @@ package application.view;
 import application.GameLauncher;
 import application.model.GameState;
 import application.model.Player;
+import application.model.SaveRepository;
+import application.model.SaveSlotIndex;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -22,7 +24,7 @@ import javafx.stage.Stage;
 
 /**
  * The SaveLoadScreen class represents a screen in the game for managing loading up a previous game file by reading the JSON file or creating a new game.
- * Screen shows three different game slots with either the pet picture and name or empty
+ * Screen shows the game slots three at a time with either the pet picture and name or empty
  * @author Abdul-Wali Khan
  */
 
@@ -34,6 +36,12 @@ public class SaveLoadScreen {
     /** The Stage object for displaying modal dialogs or other screens. */
     private Stage stage;
 
+    /** Number of save slots shown at a time. */
+    private static final int SLOTS_PER_PAGE = 3;
+
+    /** The page of save slots being shown, from 0. */
+    private int page;
+
      /**
      * Constructs a SaveLoadScreen instance.
      *
@@ -52,7 +60,7 @@ public class SaveLoadScreen {
         BorderPane root = new BorderPane();
         root.setStyle("-fx-background-color: #fff4e0;");
 
-        HBox slotContainer = createSlotContainer();
+        VBox slotContainer = createSlotContainer();
         root.setCenter(slotContainer);
 
         StackPane overlay = createOverlay();
@@ -99,40 +107,73 @@ public class SaveLoadScreen {
     }
 
      /**
-     * Creates the container for the game save slots.
+     * Creates the container for the game save slots, with buttons to page through
+     * them.
      *
-     * @return an HBox containing the save slots
+     * @return a VBox containing the save slots
      */
-    private HBox createSlotContainer() {
+    private VBox createSlotContainer() {
         HBox slotContainer = new HBox(40);
         slotContainer.setAlignment(Pos.CENTER);
         slotContainer.setPadding(new Insets(50));
         slotContainer.setStyle("-fx-background-color: #fff4e0; -fx-border-radius: 10; -fx-background-radius: 10;");
 
-        // Dynamically create save slots for 3 JSON files
-        for (int i = 1; i <= 3; i++) {
-            GameState gameState = gameLauncher.loadGame(i); // Load game state for the slot
-            String petName = gameState != null && gameState.getPlayer() != null
-                    ? gameState.getPlayer().getCurrentPet() != null
-                            ? gameState.getPlayer().getCurrentPet().getName()
-                            : null
-                    : null;
-            Integer petType = gameState != null && gameState.getPlayer() != null
-                    ? gameState.getPlayer().getCurrentPet() != null
-                            ? gameState.getPlayer().getCurrentPet().getPetType()
-                            : null
-                    : null;
+        Button previousButton = createPageButton("<");
+        Button nextButton = createPageButton(">");
+        previousButton.setOnAction(e -> showPage(slotContainer, previousButton, nextButton, page - 1));
+        nextButton.setOnAction(e -> showPage(slotContainer, previousButton, nextButton, page + 1));
+        showPage(slotContainer, previousButton, nextButton, page);
+
+        HBox pageButtons = new HBox(20, previousButton, nextButton);
+        pageButtons.setAlignment(Pos.CENTER);
+
+        VBox container = new VBox(slotContainer, pageButtons);
+        container.setAlignment(Pos.CENTER);
+        return container;
+    }
+
+    /**
+     * Fills the slot container with one page of save slots.
+     *
+     * @param slotContainer  the container of the slots
+     * @param previousButton button to the previous page
+     * @param nextButton     button to the next page
+     * @param newPage        the page to show, from 0
+     */
+    private void showPage(HBox slotContainer, Button previousButton, Button nextButton, int newPage) {
+        page = newPage;
+        slotContainer.getChildren().clear();
+
+        // Slots come from the save repository's index instead of loading every save
+        SaveRepository repository = SaveRepository.shared();
+        int firstSlot = page * SLOTS_PER_PAGE + 1;
+        boolean pageUsed = false;
+        for (int i = firstSlot; i < firstSlot + SLOTS_PER_PAGE; i++) {
+            SaveSlotIndex.Entry entry = repository.find(i);
+            pageUsed |= entry != null;
+            String petName = entry != null && entry.hasPet() ? entry.getName() : null;
+            Integer petType = entry != null && entry.hasPet() ? entry.getPetType() : null;
 
             slotContainer.getChildren().add(createSaveSlot(i, petName, petType)); // Pass petType
         }
 
-        return slotContainer;
+        previousButton.setDisable(page == 0);
+        // A page with a save may be followed by more saves, or by room for a new one
+        nextButton.setDisable(!pageUsed && repository.lastSlot() < firstSlot + SLOTS_PER_PAGE);
+    }
+
+    private Button createPageButton(String text) {
+        Button button = new Button(text);
+        button.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        button.setStyle(
+                "-fx-background-color: #ffffff; -fx-border-color: #cccccc; -fx-border-radius: 50; -fx-background-radius: 50; -fx-min-width: 60; -fx-min-height: 60; -fx-text-fill: black;");
+        return button;
     }
 
     /**
      * Creates a save slot for a game.
      *
-     * @param slotNumber the slot number (1, 2, or 3)
+     * @param slotNumber the slot number, from 1
      * @param petName the name of the pet saved in the slot, or null if empty
      * @param petType the type of the pet saved in the slot, or null if empty
      * @return a VBox representing the save slot
@@ -170,19 +211,12 @@ public class SaveLoadScreen {
         } else {
             // Slot has a saved game: show pet sprite based on petType
             if (petType != null) {
-                String imagePath = String.format("/sprite states/pet%d/normal-state.png", petType);
-                try {
-                    Image petImage = new Image(getClass().getResourceAsStream(imagePath));
-                    petImageView.setImage(petImage);
-                } catch (Exception e) {
-                    System.err.println("Failed to load pet image for petType " + petType + ": " + e.getMessage());
-                    // Use a placeholder if the image is not found
-                    petImageView
-                            .setImage(new Image(getClass().getResourceAsStream("/sprite states/default-state.png")));
+                Image petImage = SpriteCache.get(petType, "normal"); // decoded once, shared
+                if (petImage == null) {
+                    // Leave the slot without a picture if the image is not found
+                    System.err.println("Failed to load pet image for petType " + petType);
                 }
-            } else {
-                // Use a placeholder if petType is null
-                petImageView.setImage(new Image(getClass().getResourceAsStream("/sprite states/default-state.png")));
+                petImageView.setImage(petImage);
             }
 
             // Add pet image to the slot
@@ -256,4 +290,4 @@ public class SaveLoadScreen {
         modalStage.showAndWait();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package application.view;
+
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javafx.scene.image.Image;
+
+/**
+ * Decodes every pet sprite once and hands out the shared Image instances.
+ *
+ * <p>
+ * The sprites live in {@code /sprite states/pet<type>/<state>-state.png}, one per
+ * pet type and main pet state. They are kept in a small atlas indexed by pet type
+ * and state. {@link #preload()} decodes all of them on a background thread at
+ * startup, and any sprite asked for before that finishes is decoded on first use.
+ * JavaFX images are immutable, so one instance can be shown by any number of
+ * ImageViews. A sprite that is missing or cannot be decoded is remembered as
+ * missing, so it is not looked up again on every refresh.
+ * </p>
+ *
+ * @author CS2212 Group 31
+ */
+public final class SpriteCache {
+
+    public static final int PET_TYPES = 3;
+    private static final String[] STATES = { "normal", "dead", "sleeping", "angry", "hungry" };
+    private static final Object MISSING = new Object(); // atlas entry of a sprite that could not be loaded
+    private static final AtomicReferenceArray<Object> ATLAS = new AtomicReferenceArray<>(PET_TYPES * STATES.length);
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Starts decoding every sprite on a background thread. Returns right away.
+     */
+    public static void preload() {
+        Thread loader = new Thread(() -> {
+            for (int petType = 1; petType <= PET_TYPES; petType++) {
+                for (String state : STATES) {
+                    get(petType, state);
+                }
+            }
+            System.out.println("Pet sprites preloaded.");
+        }, "sprite-preload");
+        loader.setDaemon(true); // allows the thread to exit when the application closes
+        loader.start();
+    }
+
+    /**
+     * Gets the sprite of a pet type in a state.
+     *
+     * @param petType the pet type, 1 to PET_TYPES
+     * @param state   a main pet state, e.g. "normal" or "hungry"
+     * @return the shared image, or null if there is no sprite for them
+     */
+    public static Image get(int petType, String state) {
+        int stateIndex = indexOf(state);
+        if (petType < 1 || petType > PET_TYPES || stateIndex < 0) {
+            return null;
+        }
+
+        int slot = (petType - 1) * STATES.length + stateIndex;
+        Object entry = ATLAS.get(slot);
+        if (entry == null) {
+            Image image = load(String.format("/sprite states/pet%d/%s-state.png", petType, state));
+            entry = image != null ? image : MISSING;
+            if (!ATLAS.compareAndSet(slot, null, entry)) {
+                entry = ATLAS.get(slot); // another thread decoded it first, share that one
+            }
+        }
+        return entry != MISSING ? (Image) entry : null;
+    }
+
+    private static int indexOf(String state) {
+        for (int i = 0; i < STATES.length; i++) {
+            if (STATES[i].equals(state)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Image load(String path) {
+        try (InputStream stream = SpriteCache.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                System.err.println("Sprite not found: " + path);
+                return null;
+            }
+            return new Image(stream);
+        } catch (Exception e) {
+            System.err.println("Failed to load sprite " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
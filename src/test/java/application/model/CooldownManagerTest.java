@@ -0,0 +1,191 @@
+package application.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import application.util.FixedStepClock;
+import application.util.GameClock;
+import application.util.GameScheduler;
+
+/**
+ * Tests the expiry map of the CooldownManager and saving cooldowns in binary saves.
+ *
+ * @author CS2212 Group 31
+ */
+public class CooldownManagerTest {
+
+    private static final int MASK = 15; // slots of a new map - 1
+
+    private GameClock realClock;
+    private FixedStepClock clock;
+
+    @BeforeEach
+    public void useFixedClock() {
+        realClock = GameScheduler.shared().getClock();
+        clock = new FixedStepClock(1_000_000, 1000);
+        GameScheduler.shared().setClock(clock);
+    }
+
+    @AfterEach
+    public void restoreClock() {
+        GameScheduler.shared().setClock(realClock);
+    }
+
+    // Keys whose home slot in a new map is the given slot
+    private static List<Long> keysAt(int slot, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; keys.size() < count; key++) {
+            if (CooldownManager.ExpiryMap.slotOf(key, MASK) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    public void putGetRemove() {
+        CooldownManager.ExpiryMap map = new CooldownManager.ExpiryMap();
+        assertEquals(0, map.get(7));
+        map.put(7, 100);
+        map.put(7, 200); // replaces
+        assertEquals(200, map.get(7));
+        assertEquals(1, map.size());
+        map.remove(7);
+        map.remove(7); // already gone
+        assertEquals(0, map.get(7));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void removeInsideCollisionRunKeepsTheRest() {
+        CooldownManager.ExpiryMap map = new CooldownManager.ExpiryMap();
+        List<Long> keys = keysAt(3, 4); // all probe from slot 3
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), 10 + i);
+        }
+        map.remove(keys.get(1));
+        assertEquals(0, map.get(keys.get(1)));
+        assertEquals(10, map.get(keys.get(0)));
+        assertEquals(12, map.get(keys.get(2)));
+        assertEquals(13, map.get(keys.get(3)));
+
+        map.remove(keys.get(0));
+        assertEquals(12, map.get(keys.get(2)));
+        assertEquals(13, map.get(keys.get(3)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void removeAcrossTheEndOfTheTable() {
+        CooldownManager.ExpiryMap map = new CooldownManager.ExpiryMap();
+        List<Long> last = keysAt(MASK, 3); // probe from the last slot into slots 0 and 1
+        long first = keysAt(0, 1).get(0); // wants slot 0, which a wrapped key took
+        for (int i = 0; i < last.size(); i++) {
+            map.put(last.get(i), 20 + i);
+        }
+        map.put(first, 30);
+
+        map.remove(last.get(0)); // the wrapped keys have to move back past the end
+        assertEquals(21, map.get(last.get(1)));
+        assertEquals(22, map.get(last.get(2)));
+        assertEquals(30, map.get(first));
+
+        map.remove(last.get(1));
+        assertEquals(22, map.get(last.get(2)));
+        assertEquals(30, map.get(first));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void growKeepsEveryEntry() {
+        CooldownManager.ExpiryMap map = new CooldownManager.ExpiryMap();
+        for (long key = 0; key < 1000; key++) {
+            map.put(key << 8, key + 1);
+        }
+        assertTrue(map.capacity() >= 2000);
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(key + 1, map.get(key << 8));
+        }
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomChanges() {
+        Random random = new Random(42);
+        CooldownManager.ExpiryMap map = new CooldownManager.ExpiryMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = ((long) random.nextInt(200) << 8) | random.nextInt(6);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                long value = 1 + random.nextInt(1_000_000);
+                map.put(key, value);
+                expected.put(key, value);
+            }
+            assertEquals(expected.getOrDefault(key, 0L), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void cooldownRefusesUntilItEnds() {
+        CooldownManager cooldowns = new CooldownManager(GameScheduler.shared());
+        assertTrue(cooldowns.tryStart(1, PetAction.PLAY));
+        assertFalse(cooldowns.tryStart(1, PetAction.PLAY));
+        assertTrue(cooldowns.tryStart(2, PetAction.PLAY)); // another pet
+        assertTrue(cooldowns.tryStart(1, PetAction.FEED)); // no cooldown
+        assertTrue(cooldowns.tryStart(1, PetAction.FEED));
+
+        clock.step(4);
+        assertEquals(PetAction.PLAY.getCooldownMillis() - 4000, cooldowns.remainingMillis(1, PetAction.PLAY));
+        clock.step(6);
+        assertEquals(0, cooldowns.remainingMillis(1, PetAction.PLAY));
+        assertTrue(cooldowns.tryStart(1, PetAction.PLAY));
+    }
+
+    @Test
+    public void cooldownsSurviveABinarySave() throws Exception {
+        CooldownManager.shared().tryStart(77, PetAction.TAKE_TO_VET);
+        clock.step(3);
+
+        Player player = new Player("ann", new Pet("rex", 80, 80, 80, 80, null, 1));
+        player.setInventory(new Inventory());
+        GameState saved = new GameState(player, 77);
+        saved.markSaved(GameScheduler.shared().millis());
+        long expiry = saved.getCooldowns().get(PetAction.TAKE_TO_VET.getName());
+
+        GameState loaded = BinarySaveCodec.decode(BinarySaveCodec.encode(saved));
+        assertEquals(saved.getCooldowns(), loaded.getCooldowns());
+
+        CooldownManager restored = new CooldownManager(GameScheduler.shared());
+        restored.restore(77, loaded.getCooldowns());
+        assertEquals(expiry - GameScheduler.shared().millis(), restored.remainingMillis(77, PetAction.TAKE_TO_VET));
+        assertFalse(restored.tryStart(77, PetAction.TAKE_TO_VET));
+    }
+
+    @Test
+    public void saveWithoutCooldownsDecodesToNone() throws Exception {
+        Player player = new Player("bo", null);
+        player.setInventory(new Inventory());
+        GameState saved = new GameState(player, 78);
+        saved.markSaved(GameScheduler.shared().millis());
+
+        assertNull(BinarySaveCodec.decode(BinarySaveCodec.encode(saved)).getCooldowns());
+    }
+}